@@ -0,0 +1,88 @@
+package jobshop.benchmarks;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.encodings.JobNumbers;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.encodings.Task;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.Solver;
+import jobshop.solvers.TabooSolver;
+import jobshop.solvers.TranspositionCache;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/** Microbenchmarks of the hot paths of the solvers, on instances of various sizes.
+ *
+ * Each benchmark works on the solution of the EST_LRPT greedy solver for the instance. Transposition caches are
+ * disabled, so that evaluations are measured rather than lookups. Run with `./gradlew jmh`: the gc profiler reports
+ * the allocation rate of each benchmark next to its time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CoreBenchmarks {
+
+    @Param({"ft10", "la40", "swv20", "ta50", "ta80"})
+    public String instanceName;
+
+    private Instance instance;
+    private Schedule schedule;
+    private ResourceOrder order;
+    private JobNumbers jobNumbers;
+    private Solver start;
+
+    @Setup
+    public void setup() throws IOException {
+        TranspositionCache.setCapacity(0);
+        instance = Instance.fromFile(Paths.get("instances", instanceName));
+        Result greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE);
+        schedule = greedy.schedule.get();
+        order = new ResourceOrder(schedule);
+        jobNumbers = new JobNumbers(schedule);
+        start = (i, d, l) -> greedy;
+    }
+
+    @Benchmark
+    public Optional<Schedule> resourceOrderToSchedule() {
+        return order.toSchedule();
+    }
+
+    @Benchmark
+    public Optional<Schedule> jobNumbersToSchedule() {
+        return jobNumbers.toSchedule();
+    }
+
+    @Benchmark
+    public List<Task> criticalPath() {
+        return schedule.criticalPath();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return schedule.isValid();
+    }
+
+    @Benchmark
+    public List<Nowicki.Swap> allSwaps() {
+        return new Nowicki().allSwaps(order);
+    }
+
+    /** A single iteration of taboo search from the greedy solution: evaluation of all neighbors and move. */
+    @Benchmark
+    public Result tabooIteration() {
+        return new TabooSolver(new Nowicki(), start, 1, 10).solve(instance, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Result greedy() {
+        return new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE);
+    }
+}
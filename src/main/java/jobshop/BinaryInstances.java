@@ -0,0 +1,93 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/** Compact binary format of instances, meant to be memory mapped.
+ *
+ * A file is made of little-endian ints: a header (MAGIC, VERSION, number of jobs, number of tasks), then the machines
+ * of all tasks, job after job, then their durations in the same order. Instance.fromFile() recognizes these files by
+ * their magic number.
+ */
+final class BinaryInstances {
+
+    /** "JSPB" as a little-endian int. */
+    static final int MAGIC = 0x4250534A;
+    static final int VERSION = 1;
+    /** Size of the header, in bytes. */
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private BinaryInstances() {}
+
+    /** True if the given buffer starts with the header of a binary instance. */
+    static boolean isBinary(ByteBuffer buffer) {
+        return buffer.remaining() >= HEADER_SIZE
+                && buffer.order(ByteOrder.LITTLE_ENDIAN).getInt(buffer.position()) == MAGIC;
+    }
+
+    /** Reads the binary instance of the given name from the remaining bytes of the given buffer. */
+    static Instance read(ByteBuffer buffer, String name) {
+        IntBuffer ints = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        if(ints.get() != MAGIC || ints.get() != VERSION) {
+            throw new RuntimeException("Invalid binary instance " + name + ": unknown format or version");
+        }
+        int numJobs = ints.get();
+        int numTasks = ints.get();
+        if(numJobs <= 0 || numTasks <= 0 || ints.remaining() != 2L * numJobs * numTasks) {
+            throw new RuntimeException("Invalid binary instance " + name + ": size does not match the header");
+        }
+        Instance pb = new Instance(name, numJobs, numTasks);
+        for(int job = 0; job < numJobs; job++) {
+            ints.get(pb.machines[job]);
+        }
+        for(int job = 0; job < numJobs; job++) {
+            ints.get(pb.durations[job]);
+        }
+        return pb;
+    }
+
+    /** Writes the given instance, which must not be reversed or have release dates, to a binary file.
+     *
+     * The file is written next to its destination then moved, so that concurrent readers never see a partial file.
+     */
+    static void write(Instance instance, Path path) throws IOException {
+        if(instance.isReversed) {
+            throw new RuntimeException("Cannot write a reversed instance: " + instance.name);
+        }
+        for(int[] jobReleases : instance.releases) {
+            for(int release : jobReleases) {
+                if(release != 0) {
+                    throw new RuntimeException("Cannot write an instance with release dates: " + instance.name);
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 2 * Integer.BYTES * instance.numJobs * instance.numTasks)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.put(MAGIC).put(VERSION).put(instance.numJobs).put(instance.numTasks);
+        for(int[] jobMachines : instance.machines) {
+            ints.put(jobMachines);
+        }
+        for(int[] jobDurations : instance.durations) {
+            ints.put(jobDurations);
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,220 @@
+package jobshop;
+
+import jobshop.solvers.TraceBuffer;
+
+import java.util.List;
+import java.util.Locale;
+
+/** SVG charts of the results of Main, rendered directly as text without any plotting library.
+ *
+ *  - convergence(): the makespan of the best solution of each solver over time, on one instance,
+ *  - overview(): the distance to the best known result of each solver, on all the instances of a run.
+ */
+final class ConvergencePlot {
+
+    static final int WIDTH = 800;
+    static final int HEIGHT = 480;
+    /** Margins around the plot area, with room for the ticks on the left and bottom and the legend on the right. */
+    private static final int LEFT = 70, RIGHT = 140, TOP = 40, BOTTOM = 60;
+    private static final String[] COLORS = {
+            "#1f77b4", "#ff7f0e", "#2ca02c", "#d62728", "#9467bd",
+            "#8c564b", "#e377c2", "#7f7f7f", "#bcbd22", "#17becf"
+    };
+
+    private final StringBuilder svg = new StringBuilder();
+    private final double xMin, xMax, yMin, yMax;
+    private int series = 0;
+
+    private ConvergencePlot(String title, double xMin, double xMax, double yMin, double yMax) {
+        this.xMin = xMin;
+        this.xMax = xMax > xMin ? xMax : xMin + 1;
+        this.yMin = yMin;
+        this.yMax = yMax > yMin ? yMax : yMin + 1;
+        svg.append(String.format(Locale.ROOT,
+                "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" viewBox=\"0 0 %d %d\" " +
+                        "font-family=\"sans-serif\" font-size=\"12\">\n", WIDTH, HEIGHT, WIDTH, HEIGHT));
+        svg.append("<rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n");
+        text(LEFT + plotWidth() / 2.0, TOP / 2.0 + 5, "middle", 0, title);
+    }
+
+    /** Convergence of the given solvers on an instance: for each solver, the makespan of its best solution over
+     * time, from its first solution to the end of its run (runtimes, in milliseconds). */
+    static String convergence(String instance, int bestKnown, List<String> solvers, List<TraceBuffer> traces,
+                              long[] runtimes) {
+        double xMax = 0;
+        int yMin = bestKnown, yMax = bestKnown;
+        for(int s = 0; s < traces.size(); s++) {
+            TraceBuffer trace = traces.get(s);
+            xMax = Math.max(xMax, runtimes[s]);
+            for(int i = 0; i < trace.size(); i++) {
+                yMin = Math.min(yMin, trace.makespan(i));
+                yMax = Math.max(yMax, trace.makespan(i));
+            }
+        }
+        ConvergencePlot plot = new ConvergencePlot("Convergence on " + instance, 0, xMax,
+                yMin - 0.02 * (yMax - yMin), yMax + 0.02 * (yMax - yMin));
+        plot.xAxis("time (ms)");
+        plot.yAxis("makespan");
+        plot.horizontalLine(bestKnown, "best known");
+        for(int s = 0; s < traces.size(); s++) {
+            TraceBuffer trace = traces.get(s);
+            StringBuilder points = new StringBuilder();
+            for(int i = 0; i < trace.size(); i++) {
+                double x = trace.nanos(i) / 1e6;
+                if(i > 0) {
+                    // the previous solution is the best one until this one is found
+                    plot.point(points, x, trace.makespan(i - 1));
+                }
+                plot.point(points, x, trace.makespan(i));
+            }
+            if(trace.size() > 0) {
+                plot.point(points, Math.max(runtimes[s], trace.nanos(trace.size() - 1) / 1e6),
+                        trace.makespan(trace.size() - 1));
+            }
+            plot.series(solvers.get(s), points, false);
+        }
+        return plot.end();
+    }
+
+    /** Overview of a run: for each solver, its distance to the best known result (in percent) on each instance. */
+    static String overview(List<String> instances, List<String> solvers, float[][] distances) {
+        double yMax = 1;
+        for(float[] instanceDistances : distances) {
+            for(float distance : instanceDistances) {
+                yMax = Math.max(yMax, distance);
+            }
+        }
+        ConvergencePlot plot = new ConvergencePlot("Distance to the best known results", -0.5,
+                instances.size() - 0.5, 0, 1.05 * yMax);
+        plot.instanceAxis(instances);
+        plot.yAxis("distance to best known (%)");
+        for(int s = 0; s < solvers.size(); s++) {
+            StringBuilder points = new StringBuilder();
+            for(int i = 0; i < instances.size(); i++) {
+                plot.point(points, i, distances[i][s]);
+            }
+            plot.series(solvers.get(s), points, true);
+        }
+        return plot.end();
+    }
+
+    private int plotWidth() {
+        return WIDTH - LEFT - RIGHT;
+    }
+
+    private int plotHeight() {
+        return HEIGHT - TOP - BOTTOM;
+    }
+
+    private double x(double value) {
+        return LEFT + (value - xMin) / (xMax - xMin) * plotWidth();
+    }
+
+    private double y(double value) {
+        return TOP + (yMax - value) / (yMax - yMin) * plotHeight();
+    }
+
+    private void point(StringBuilder points, double x, double y) {
+        points.append(String.format(Locale.ROOT, "%.1f,%.1f ", x(x), y(y)));
+    }
+
+    /** Ticks and grid of the horizontal axis, with round values. */
+    private void xAxis(String label) {
+        double step = tickStep(xMax - xMin);
+        for(double v = Math.ceil(xMin / step) * step; v <= xMax; v += step) {
+            line(x(v), TOP, x(v), TOP + plotHeight(), "#e0e0e0");
+            text(x(v), TOP + plotHeight() + 16, "middle", 0, format(v, step));
+        }
+        text(LEFT + plotWidth() / 2.0, HEIGHT - 15, "middle", 0, label);
+    }
+
+    /** Ticks of the horizontal axis of the overview: the names of the instances, at most 40 of them. */
+    private void instanceAxis(List<String> instances) {
+        int every = (instances.size() + 39) / 40;
+        for(int i = 0; i < instances.size(); i += every) {
+            double x = x(i);
+            double y = TOP + plotHeight() + 8;
+            text(x, y, "end", -60, instances.get(i));
+        }
+    }
+
+    /** Ticks and grid of the vertical axis, with round values. */
+    private void yAxis(String label) {
+        double step = tickStep(yMax - yMin);
+        for(double v = Math.ceil(yMin / step) * step; v <= yMax; v += step) {
+            line(LEFT, y(v), LEFT + plotWidth(), y(v), "#e0e0e0");
+            text(LEFT - 6, y(v) + 4, "end", 0, format(v, step));
+        }
+        text(18, TOP + plotHeight() / 2.0, "middle", -90, label);
+    }
+
+    /** Dashed horizontal line at the given value, labelled at its right end. */
+    private void horizontalLine(double value, String label) {
+        svg.append(String.format(Locale.ROOT,
+                "<line x1=\"%d\" y1=\"%.1f\" x2=\"%d\" y2=\"%.1f\" stroke=\"black\" stroke-dasharray=\"4,4\"/>\n",
+                LEFT, y(value), LEFT + plotWidth(), y(value)));
+        text(LEFT + plotWidth() - 4, y(value) - 4, "end", 0, label);
+    }
+
+    /** Adds a series, as a line through the given points, with its entry in the legend. */
+    private void series(String name, StringBuilder points, boolean markers) {
+        String color = COLORS[series % COLORS.length];
+        svg.append("<polyline fill=\"none\" stroke=\"").append(color).append("\" stroke-width=\"1.5\" points=\"")
+                .append(points.toString().trim()).append("\"/>\n");
+        if(markers) {
+            for(String point : points.toString().trim().split(" ")) {
+                if(!point.isEmpty()) {
+                    String[] xy = point.split(",");
+                    svg.append("<circle cx=\"").append(xy[0]).append("\" cy=\"").append(xy[1])
+                            .append("\" r=\"2.5\" fill=\"").append(color).append("\"/>\n");
+                }
+            }
+        }
+        double y = TOP + 10 + 18 * series;
+        line(WIDTH - RIGHT + 10, y, WIDTH - RIGHT + 30, y, color);
+        text(WIDTH - RIGHT + 36, y + 4, "start", 0, name);
+        series++;
+    }
+
+    private void frame() {
+        svg.append(String.format(Locale.ROOT,
+                "<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"none\" stroke=\"black\"/>\n",
+                LEFT, TOP, plotWidth(), plotHeight()));
+    }
+
+    private void line(double x1, double y1, double x2, double y2, String color) {
+        svg.append(String.format(Locale.ROOT,
+                "<line x1=\"%.1f\" y1=\"%.1f\" x2=\"%.1f\" y2=\"%.1f\" stroke=\"%s\"/>\n", x1, y1, x2, y2, color));
+    }
+
+    private void text(double x, double y, String anchor, int rotation, String text) {
+        svg.append(String.format(Locale.ROOT, "<text x=\"%.1f\" y=\"%.1f\" text-anchor=\"%s\"", x, y, anchor));
+        if(rotation != 0) {
+            svg.append(String.format(Locale.ROOT, " transform=\"rotate(%d %.1f %.1f)\"", rotation, x, y));
+        }
+        svg.append('>').append(escape(text)).append("</text>\n");
+    }
+
+    private String end() {
+        frame();
+        return svg.append("</svg>\n").toString();
+    }
+
+    /** Distance between two ticks of an axis covering the given range: 1, 2 or 5 times a power of 10, for about 5 to
+     * 10 ticks. */
+    static double tickStep(double range) {
+        double magnitude = Math.pow(10, Math.floor(Math.log10(range / 5)));
+        double normalized = range / 5 / magnitude;
+        return magnitude * (normalized < 2 ? 1 : normalized < 5 ? 2 : 5);
+    }
+
+    /** Formats a tick value with as many decimals as the step between ticks. */
+    private static String format(double value, double step) {
+        int decimals = Math.max(0, (int) -Math.floor(Math.log10(step)));
+        return String.format(Locale.ROOT, "%." + decimals + "f", value);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
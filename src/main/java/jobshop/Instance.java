@@ -3,11 +3,7 @@ package jobshop;
 import jobshop.encodings.Task;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
-import java.util.Scanner;
-import java.util.stream.Collectors;
 
 /** Represents an instance of a JobShop problem. */
 public final class Instance {
@@ -30,9 +26,25 @@ public final class Instance {
     /** Matrix containing the machine on which each task must be scheduled. */
     final int[][] machines;
 
+    /** Matrix containing the date before which each task cannot start. All zeros except for sub-instances. */
+    final int[][] releases;
+
+    /** True if this instance is the reversed view of another one: task t of a job is task numTasks-1-t of the
+     * same job in the original instance. The matrices are shared with the original instance. */
+    public final boolean isReversed;
+
+    /** The reversed view of this instance, created on first use. Volatile, as the view may be created by one thread
+     * and searched by another (see BidirectionalSolver). */
+    private volatile Instance mirror;
+
+    /** Index, in the matrices, of the given task. */
+    private int index(int task) {
+        return isReversed ? numTasks - 1 - task : task;
+    }
+
     /** Duration of the given task. */
     public int duration(int job, int task) {
-        return durations[job][task];
+        return durations[job][index(task)];
     }
 
     /** Duration of the given task. */
@@ -42,7 +54,7 @@ public final class Instance {
 
     /** Machine on which the given task must be scheduled. */
     public int machine(int job, int task) {
-        return machines[job][task];
+        return machines[job][index(task)];
     }
 
     /** Machine on which the given task must be scheduled. */
@@ -59,6 +71,102 @@ public final class Instance {
         throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
     }
 
+    /** Date before which the given task cannot start (0 unless this is a sub-instance). */
+    public int release(int job, int task) {
+        return releases[job][index(task)];
+    }
+
+    /** Date before which the given task cannot start (0 unless this is a sub-instance). */
+    public int release(Task t) {
+        return release(t.job, t.task);
+    }
+
+    /** Creates the sub-instance of a part of the remaining work on some jobs, given the state of a partial schedule.
+     *
+     * Job i of the sub-instance is job jobs[i] of this instance, of which only the tasks doneTasks[i] (included) to
+     * endTasks[i] (excluded) are to be scheduled: the previous ones are already scheduled, the next ones are left for
+     * later. As every job must still visit every machine, the tasks outside this range are kept with a null duration,
+     * and moved at the beginning of the job: they all start at time 0, and can be placed first on their machine without
+     * delaying any other task. Task t of the range is so task t + numTasks - endTasks[i] of the sub-instance. The tasks
+     * of the range cannot start before the release date of their machine, and the first of them before the ready time
+     * of its job.
+     *
+     * @param name Name of the sub-instance.
+     * @param jobs Jobs of this instance that are part of the sub-instance.
+     * @param doneTasks For each job of the sub-instance, number of tasks already scheduled.
+     * @param endTasks For each job of the sub-instance, number of tasks scheduled once the sub-instance is solved.
+     * @param jobReady For each job of the sub-instance, end time of its last scheduled task.
+     * @param machineReleases For each machine, end time of the last task scheduled on it.
+     */
+    public Instance subInstance(String name, int[] jobs, int[] doneTasks, int[] endTasks, int[] jobReady,
+                                int[] machineReleases) {
+        Instance sub = new Instance(name, jobs.length, numTasks);
+        for(int i = 0; i < jobs.length; i++) {
+            // tasks outside of the range first, then the tasks of the range
+            int placeholder = 0;
+            int offset = numTasks - endTasks[i];
+            for(int t = 0; t < numTasks; t++) {
+                int machine = machine(jobs[i], t);
+                if(t < doneTasks[i] || t >= endTasks[i]) {
+                    sub.machines[i][placeholder] = machine;
+                    sub.durations[i][placeholder] = 0;
+                    sub.releases[i][placeholder] = 0;
+                    placeholder++;
+                } else {
+                    sub.machines[i][t + offset] = machine;
+                    sub.durations[i][t + offset] = duration(jobs[i], t);
+                    sub.releases[i][t + offset] = t == doneTasks[i]
+                            ? Math.max(jobReady[i], machineReleases[machine])
+                            : machineReleases[machine];
+                }
+            }
+        }
+        return sub;
+    }
+
+    /** The instance in which the order of the tasks of every job is reversed.
+     *
+     * A solution of the reversed instance, read backwards, is a solution of this instance with the same makespan
+     * (see ResourceOrder.reversed()), and some instances are much easier to solve in one direction than in the other.
+     * This is a view that shares the matrices of this instance: it costs no copy, and reversing it again gives back
+     * this instance.
+     *
+     * Release dates have no meaning once reversed, so sub-instances with release dates cannot be reversed.
+     */
+    public Instance reversed() {
+        Instance view = mirror;
+        if(view == null) {
+            synchronized(this) {
+                view = mirror;
+                if(view == null) {
+                    for(int[] jobReleases : releases) {
+                        for(int release : jobReleases) {
+                            if(release != 0) {
+                                throw new RuntimeException("Cannot reverse an instance with release dates: " + name);
+                            }
+                        }
+                    }
+                    view = new Instance(this);
+                    mirror = view;
+                }
+            }
+        }
+        return view;
+    }
+
+    /** Creates the reversed view of the given instance. */
+    private Instance(Instance original) {
+        this.name = original.name + " (reversed)";
+        this.numJobs = original.numJobs;
+        this.numTasks = original.numTasks;
+        this.numMachines = original.numMachines;
+        this.durations = original.durations;
+        this.machines = original.machines;
+        this.releases = original.releases;
+        this.isReversed = !original.isReversed;
+        this.mirror = original;
+    }
+
     /**
      * Creates a new instance, with uninitialized durations and machines.
      * This should no be called directly. Instead, Instance objects should be created with the
@@ -72,29 +180,13 @@ public final class Instance {
 
         durations = new int[numJobs][numTasks];
         machines = new int[numJobs][numTasks];
+        releases = new int[numJobs][numTasks];
+        isReversed = false;
     }
 
-    /** Parses a instance from a file. */
+    /** Parses a instance from a file, in the format of this project, in the format of Taillard (see
+     * InstanceParser) or in binary (see BinaryInstances). */
     public static Instance fromFile(Path path) throws IOException {
-        String name = path.getFileName().toString();
-        Iterator<String> lines = Files.readAllLines(path).stream()
-                .filter(l -> !l.startsWith("#"))
-                .collect(Collectors.toList())
-                .iterator();
-
-        Scanner header = new Scanner(lines.next());
-        int numJobs = header.nextInt();
-        int numTasks = header.nextInt();
-        Instance pb = new Instance(name, numJobs, numTasks);
-
-        for(int job = 0 ; job<numJobs ; job++) {
-            Scanner line = new Scanner(lines.next());
-            for(int task = 0 ; task < numTasks ; task++) {
-                pb.machines[job][task] = line.nextInt();
-                pb.durations[job][task] = line.nextInt();
-            }
-        }
-
-        return pb;
+        return InstanceParser.parse(path, path.getFileName().toString());
     }
 }
@@ -0,0 +1,132 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/** Index of the instance files of a directory, with the best known result of each instance.
+ *
+ * The index is read from the CATALOG_FILE of the directory, which has one line per instance: its name (also the name
+ * of its file) and its best known makespan. Everything following a '#' is ignored.
+ *
+ * Instances are loaded through a binary cache (see BinaryInstances): the first time an instance is loaded, its text
+ * file is parsed and written in binary in BINARY_DIRECTORY; later loads map this file, as long as it is more recent
+ * than the text file.
+ */
+public final class InstanceCatalog {
+
+    /** Name of the catalog file of a directory of instances. */
+    public static final String CATALOG_FILE = "catalog.txt";
+
+    /** Directory in which binary instances are cached. */
+    static final Path BINARY_DIRECTORY = Paths.get("build", "instances");
+
+    private static InstanceCatalog standard;
+
+    private final Path directory;
+    /** Best known result of each instance, by name. */
+    private final TreeMap<String, Integer> bests = new TreeMap<>();
+
+    private InstanceCatalog(Path directory) {
+        this.directory = directory;
+    }
+
+    /** The catalog of the instances/ directory of the project. */
+    public static synchronized InstanceCatalog standard() {
+        if(standard == null) {
+            try {
+                standard = load(Paths.get("instances"));
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot read the catalog of instances", e);
+            }
+        }
+        return standard;
+    }
+
+    /** Reads the catalog of the given directory. */
+    public static InstanceCatalog load(Path directory) throws IOException {
+        InstanceCatalog catalog = new InstanceCatalog(directory);
+        int lineNumber = 0;
+        for(String line : Files.readAllLines(directory.resolve(CATALOG_FILE))) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String[] fields = (comment >= 0 ? line.substring(0, comment) : line).trim().split("\\s+");
+            if(fields.length == 1 && fields[0].isEmpty()) {
+                continue;
+            }
+            if(fields.length != 2) {
+                throw new RuntimeException("Invalid catalog line " + lineNumber + ", expected a name and a makespan: " + line);
+            }
+            catalog.bests.put(fields[0], Integer.parseInt(fields[1]));
+        }
+        return catalog;
+    }
+
+    /** Names of all instances of the catalog, in alphabetical order. */
+    public List<String> names() {
+        return new ArrayList<>(bests.keySet());
+    }
+
+    /** True if the given instance is part of the catalog. */
+    public boolean contains(String name) {
+        return bests.containsKey(name);
+    }
+
+    /** All instances whose name starts with the given prefix, in alphabetical order. */
+    public List<String> instancesMatching(String namePrefix) {
+        return bests.keySet().stream()
+                .filter(i -> i.startsWith(namePrefix))
+                .collect(Collectors.toList());
+    }
+
+    /** Best makespan that has ever been found for the given instance. */
+    public int bestKnown(String name) {
+        Integer best = bests.get(name);
+        if(best == null) {
+            throw new RuntimeException("Unknown best result for " + name);
+        }
+        return best;
+    }
+
+    /** Loads the given instance of the catalog, from its binary file if it is up to date. */
+    public Instance load(String name) throws IOException {
+        if(!contains(name)) {
+            throw new RuntimeException("Unknown instance: " + name);
+        }
+        Path text = directory.resolve(name);
+        Path binary = BINARY_DIRECTORY.resolve(name + ".bin");
+        if(Files.exists(binary)
+                && Files.getLastModifiedTime(binary).compareTo(Files.getLastModifiedTime(text)) >= 0) {
+            return InstanceParser.parse(binary, name);
+        }
+        Instance instance = InstanceParser.parse(text, name);
+        BinaryInstances.write(instance, binary);
+        return instance;
+    }
+
+    /** Loads the given instances of the catalog in parallel, and returns them by name, in the given order. */
+    public Map<String, Instance> preload(List<String> names) {
+        List<Instance> instances = names.parallelStream()
+                .map(name -> {
+                    try {
+                        return load(name);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Cannot load instance " + name, e);
+                    }
+                })
+                .collect(Collectors.toList());
+        Map<String, Instance> byName = new LinkedHashMap<>();
+        for(int i = 0; i < names.size(); i++) {
+            byName.put(names.get(i), instances.get(i));
+        }
+        return Collections.unmodifiableMap(byName);
+    }
+}
@@ -0,0 +1,177 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** Single pass parser of instance files, reading the bytes of a memory mapped file.
+ *
+ * Two formats are recognized:
+ *  - the format of the instances of this project: the number of jobs and tasks, then one line per job with the
+ *    machine and the duration of each of its tasks,
+ *  - the format of Taillard: a header line starting with the number of jobs and machines (possibly followed by the
+ *    seeds and bounds of the instance), then a block of durations introduced by the word "Times", one line per job,
+ *    and a block of machines (numbered from 1) introduced by the word "Machines".
+ *
+ * Numbers may be separated by any whitespace, and everything from a '#' to the end of the line is ignored. Other
+ * words (such as the "Nb of jobs, Nb of Machines, ..." header of Taillard) are ignored as well. Values are written
+ * directly into the matrices of the instance, without intermediate strings or lists.
+ */
+final class InstanceParser {
+
+    private final ByteBuffer buffer;
+    private final String name;
+    /** Current line, for error messages. */
+    private int line = 1;
+    /** Lower case word read by the last call to next(), null if it read a number. */
+    private String word;
+    /** Number read by the last call to next(). */
+    private int number;
+
+    private InstanceParser(ByteBuffer buffer, String name) {
+        this.buffer = buffer;
+        this.name = name;
+    }
+
+    /** Parses the instance of the given name in the given file, which may also be a binary instance (see
+     * BinaryInstances). */
+    static Instance parse(Path path, String name) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return BinaryInstances.isBinary(buffer)
+                    ? BinaryInstances.read(buffer, name)
+                    : new InstanceParser(buffer, name).parse();
+        }
+    }
+
+    /** Parses an instance from the remaining bytes of the given buffer. */
+    static Instance parse(ByteBuffer buffer, String name) {
+        return new InstanceParser(buffer, name).parse();
+    }
+
+    private Instance parse() {
+        int numJobs = nextNumber("number of jobs");
+        int numTasks = nextNumber("number of tasks");
+        if(numJobs <= 0 || numTasks <= 0) {
+            throw error("invalid size " + numJobs + "x" + numTasks);
+        }
+        Instance pb = new Instance(name, numJobs, numTasks);
+
+        // in the format of Taillard, the size may be followed by the two seeds and the two bounds of the instance,
+        // then comes the "Times" block: otherwise, go back to the first task
+        int mark = buffer.position();
+        int markLine = line;
+        boolean taillard = false;
+        for(int i = 0; i <= 4 && next(); i++) {
+            if(word != null) {
+                taillard = "times".equals(word);
+                break;
+            }
+        }
+        if(!taillard) {
+            buffer.position(mark);
+            line = markLine;
+        }
+
+        if(taillard) {
+            for(int job = 0; job < numJobs; job++) {
+                for(int task = 0; task < numTasks; task++) {
+                    pb.durations[job][task] = nextNumber("duration");
+                }
+            }
+            if(!next() || !"machines".equals(word)) {
+                throw error("expected the block of machines");
+            }
+            for(int job = 0; job < numJobs; job++) {
+                for(int task = 0; task < numTasks; task++) {
+                    pb.machines[job][task] = machine(nextNumber("machine") - 1, numTasks);
+                }
+            }
+        } else {
+            for(int job = 0; job < numJobs; job++) {
+                for(int task = 0; task < numTasks; task++) {
+                    pb.machines[job][task] = machine(nextNumber("machine"), numTasks);
+                    pb.durations[job][task] = nextNumber("duration");
+                }
+            }
+        }
+        return pb;
+    }
+
+    /** Checks that the given machine exists in an instance with the given number of machines. */
+    private int machine(int machine, int numMachines) {
+        if(machine < 0 || machine >= numMachines) {
+            throw error("no machine " + machine + " in an instance of " + numMachines + " machines");
+        }
+        return machine;
+    }
+
+    /** Skips whitespace, comments and separators, then reads a number or a word. Returns false at the end of input. */
+    private boolean next() {
+        while(buffer.hasRemaining()) {
+            byte c = buffer.get();
+            if(c == '\n') {
+                line++;
+            } else if(c == '#') {
+                skipLine();
+            } else if(c >= '0' && c <= '9') {
+                long value = c - '0';
+                while(buffer.hasRemaining()) {
+                    byte d = buffer.get(buffer.position());
+                    if(d < '0' || d > '9') {
+                        break;
+                    }
+                    buffer.get();
+                    value = value * 10 + (d - '0');
+                    if(value > Integer.MAX_VALUE) {
+                        throw error("number too large");
+                    }
+                }
+                number = (int) value;
+                word = null;
+                return true;
+            } else if(c == '-') {
+                throw error("negative numbers are not allowed");
+            } else if((c | 0x20) >= 'a' && (c | 0x20) <= 'z') {
+                StringBuilder letters = new StringBuilder().append((char) (c | 0x20));
+                while(buffer.hasRemaining()) {
+                    byte d = (byte) (buffer.get(buffer.position()) | 0x20);
+                    if(d < 'a' || d > 'z') {
+                        break;
+                    }
+                    buffer.get();
+                    letters.append((char) d);
+                }
+                word = letters.toString();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Reads the next number, skipping the words before it. */
+    private int nextNumber(String what) {
+        while(next()) {
+            if(word == null) {
+                return number;
+            }
+        }
+        throw error("unexpected end of file, expected a " + what);
+    }
+
+    /** Skips everything up to the end of the current line. */
+    private void skipLine() {
+        while(buffer.hasRemaining()) {
+            if(buffer.get() == '\n') {
+                line++;
+                return;
+            }
+        }
+    }
+
+    private RuntimeException error(String message) {
+        return new RuntimeException("Invalid instance " + name + ", line " + line + ": " + message);
+    }
+}
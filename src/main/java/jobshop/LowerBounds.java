@@ -0,0 +1,132 @@
+package jobshop;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.IntStream;
+
+/** Lower bounds on the optimal makespan of an instance.
+ *
+ *  - job bound: the longest job, since its tasks cannot overlap,
+ *  - machine bound: for each machine, the smallest head (work that must be done on the jobs before reaching the
+ *    machine) plus the load of the machine plus the smallest tail (work that remains after the machine),
+ *  - Jackson bound: for each machine, the makespan of the optimal preemptive schedule of the machine alone, where
+ *    each task is released at its head and must be followed by its tail. It dominates the machine bound.
+ *
+ * Machine-based bounds are independent from one machine to the other and are computed in parallel.
+ * As solvers often ask for the bound of the same instance, results are cached per instance.
+ */
+public final class LowerBounds {
+
+    private static final Map<Instance, Integer> cache = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private LowerBounds() {}
+
+    /** Best of all the bounds of this class. */
+    public static int of(Instance instance) {
+        return cache.computeIfAbsent(instance, i -> Math.max(jobBound(i), jacksonBound(i)));
+    }
+
+    /** Duration of the longest job (including the waits for the release dates of its tasks). */
+    public static int jobBound(Instance instance) {
+        int bound = 0;
+        for(int j = 0; j < instance.numJobs; ++j) {
+            int length = 0;
+            for(int t = 0; t < instance.numTasks; ++t) {
+                length = Math.max(length, instance.release(j, t)) + instance.duration(j, t);
+            }
+            bound = Math.max(bound, length);
+        }
+        return bound;
+    }
+
+    /** Largest value, over all machines, of min head + load + min tail. */
+    public static int machineBound(Instance instance) {
+        return IntStream.range(0, instance.numMachines).parallel()
+                .map(m -> {
+                    int[][] rpq = headsAndTails(instance, m);
+                    return Arrays.stream(rpq[0]).min().getAsInt()
+                            + Arrays.stream(rpq[1]).sum()
+                            + Arrays.stream(rpq[2]).min().getAsInt();
+                })
+                .max().orElse(0);
+    }
+
+    /** Largest value, over all machines, of the optimal preemptive one-machine schedule. */
+    public static int jacksonBound(Instance instance) {
+        return IntStream.range(0, instance.numMachines).parallel()
+                .map(m -> {
+                    int[][] rpq = headsAndTails(instance, m);
+                    return jacksonPreemptive(rpq[0], rpq[1], rpq[2]);
+                })
+                .max().orElse(0);
+    }
+
+    /** Heads, durations and tails of the tasks executing on machine m, indexed by job. */
+    private static int[][] headsAndTails(Instance instance, int m) {
+        int[] r = new int[instance.numJobs];
+        int[] p = new int[instance.numJobs];
+        int[] q = new int[instance.numJobs];
+        for(int j = 0; j < instance.numJobs; ++j) {
+            int task = instance.task_with_machine(j, m);
+            for(int t = 0; t < instance.numTasks; ++t) {
+                if(t < task) {
+                    r[j] = Math.max(r[j], instance.release(j, t)) + instance.duration(j, t);
+                } else if(t > task) {
+                    q[j] += instance.duration(j, t);
+                }
+            }
+            r[j] = Math.max(r[j], instance.release(j, task));
+            p[j] = instance.duration(j, task);
+        }
+        return new int[][] { r, p, q };
+    }
+
+    /** Makespan of the optimal preemptive schedule of tasks on one machine, with release dates r, durations p and
+     * tails q (Jackson's rule: at any time, run the available task with the longest tail). */
+    public static int jacksonPreemptive(int[] r, int[] p, int[] q) {
+        int n = r.length;
+        Integer[] byRelease = new Integer[n];
+        for(int i = 0; i < n; ++i) {
+            byRelease[i] = i;
+        }
+        Arrays.sort(byRelease, (a, b) -> Integer.compare(r[a], r[b]));
+
+        int[] remaining = p.clone();
+        boolean[] available = new boolean[n];
+        int numAvailable = 0;
+        int next = 0;
+        int time = 0;
+        int done = 0;
+        int bound = 0;
+        while(done < n) {
+            if(numAvailable == 0) {
+                time = Math.max(time, r[byRelease[next]]);
+            }
+            // release all tasks available at this time
+            while(next < n && r[byRelease[next]] <= time) {
+                available[byRelease[next++]] = true;
+                numAvailable++;
+            }
+            // run the task with the longest tail until it completes or a new task is released
+            int current = -1;
+            for(int i = 0; i < n; ++i) {
+                if(available[i] && (current < 0 || q[i] > q[current])) {
+                    current = i;
+                }
+            }
+            int nextRelease = next < n ? r[byRelease[next]] : Integer.MAX_VALUE;
+            int run = (int) Math.min(remaining[current], (long) nextRelease - time);
+            time += run;
+            remaining[current] -= run;
+            if(remaining[current] == 0) {
+                available[current] = false;
+                numAvailable--;
+                done++;
+                bound = Math.max(bound, time + q[current]);
+            }
+        }
+        return bound;
+    }
+}
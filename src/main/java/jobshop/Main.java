@@ -1,15 +1,21 @@
 package jobshop;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintStream;
-import java.nio.file.Path;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Schedule;
 import jobshop.solvers.*;
 import jobshop.solvers.neighborhood.Nowicki;
@@ -40,9 +46,49 @@ public class Main {
                 .help("Solver(s) to use (space separated if more than one)");
         parser.addArgument("--instance")
                 .nargs("+")
-                .required(true)
                 .help("Instance(s) to solve (space separated if more than one). All instances starting with the given " +
                         "string will be selected. (e.g. \"ft\" will select the instances ft06, ft10 and ft20.");
+        parser.addArgument("--warmup")
+                .nargs("?")
+                .setConst(1L)
+                .type(Long.class)
+                .metavar("SECONDS")
+                .help("Before solving the instances, runs each solver during the given time (1 second if omitted) on " +
+                        "a small generated instance, so that the solvers are timed once compiled by the JIT.");
+        parser.addArgument("--repeats")
+                .setDefault(1)
+                .type(Integer.class)
+                .help("Number of runs of each solver on each instance, with the seeds 0, 1, ... The table then reports " +
+                        "the median runtime and makespan, the min and max makespans, and the mean distance to the best " +
+                        "known result with its 95% confidence interval.");
+        parser.addArgument("--scaling")
+                .nargs("+")
+                .metavar("SIZE")
+                .help("Instead of solving instances, runs the solvers on instances of the given sizes (e.g. 100x20 " +
+                        "1000x20), generated with the scheme of Taillard, and reports their throughput and memory.");
+        parser.addArgument("--metrics")
+                .metavar("FILE")
+                .help("Writes the metrics of each solver on each instance (see SolverMetrics) to the given file, in " +
+                        "JSON if its name ends with .json, in CSV otherwise. Enables the timers of the phases.");
+        parser.addArgument("--traces")
+                .setDefault("traces")
+                .metavar("DIRECTORY")
+                .help("Directory in which the convergence trace of each solver on each instance is written, as " +
+                        "{instance}-{solver}.csv.");
+        parser.addArgument("--plots")
+                .setDefault("plots")
+                .metavar("DIRECTORY")
+                .help("Directory in which the convergence plot of each instance ({instance}.svg) and the overview " +
+                        "of the run (overview.svg) are written.");
+        parser.addArgument("--trace-points")
+                .setDefault(10000)
+                .type(Integer.class)
+                .help("Maximum number of points of a trace: longer traces are downsampled.");
+        parser.addArgument("--cache-size")
+                .setDefault(1 << 20)
+                .type(Integer.class)
+                .help("Maximum number of makespans of resource orders kept in the transposition cache of each " +
+                        "instance (0 to disable the cache).");
 
         // parse command line arguments
         Namespace ns = null;
@@ -61,6 +107,13 @@ public class Main {
 
         PrintStream output = System.out;
 
+        TranspositionCache.setCapacity(ns.getInt("cache_size"));
+
+        // metrics of each solver on each instance, dumped at the end of the run
+        String metricsFile = ns.getString("metrics");
+        List<String> metricsRows = new ArrayList<>();
+        SolverMetrics.setTiming(metricsFile != null);
+
         // convert the timeout from seconds to milliseconds.
         long solveTimeMs = ns.getLong("timeout") * 3000;
 
@@ -69,144 +122,370 @@ public class Main {
         List<String> solversToTest = ns.getList("solver");
         List<Solver> solvers = solversToTest.stream().map(Solver::getSolver).collect(Collectors.toList());
 
+        if(ns.getList("scaling") != null) {
+            scaling(ns.getList("scaling"), solversToTest, solvers, solveTimeMs, output);
+            return;
+        }
+        if(ns.getList("instance") == null) {
+            System.err.println("ERROR: either --instance or --scaling must be given.");
+            System.exit(1);
+        }
+
         // retrieve all instances on which we should run the solvers.
+        InstanceCatalog catalog = InstanceCatalog.standard();
         List<String> instances = new ArrayList<>();
         List<String> instancePrefixes = ns.getList("instance");
         for(String instancePrefix : instancePrefixes) {
-            List<String> matches = BestKnownResults.instancesMatching(instancePrefix);
+            List<String> matches = catalog.instancesMatching(instancePrefix);
             if(matches.isEmpty()) {
                 System.err.println("ERROR: instance prefix \"" + instancePrefix + "\" does not match any instance.");
-                System.err.println("       available instances: " + Arrays.toString(BestKnownResults.instances));
+                System.err.println("       available instances: " + catalog.names());
                 System.exit(1);
             }
             instances.addAll(matches);
         }
 
+        // load all instances up front, in parallel, so that no I/O happens between the timed runs of the solvers
+        Map<String, Instance> loaded = catalog.preload(instances);
+
+        if(ns.getLong("warmup") != null) {
+            warmup(solversToTest, ns.getLong("warmup") * 1000);
+        }
+
+        int repeats = ns.getInt("repeats");
+        if(repeats < 1) {
+            System.err.println("ERROR: the number of repeats must be at least 1.");
+            System.exit(1);
+        }
+        // width of the columns of each solver in the result table
+        int columnWidth = repeats == 1 ? 36 : 54;
+
         // average runtime of each solver
         float[] avg_runtimes = new float[solversToTest.size()];
         // average distance to best known result for each solver
         float[] avg_distances = new float[solversToTest.size()];
-
-        try {
+        // average gap to the lower bound (optimality gap) for each solver
+        float[] avg_gaps = new float[solversToTest.size()];
+        // lookups and hits in the transposition caches for each solver
+        long[] cache_lookups = new long[solversToTest.size()];
+        long[] cache_hits = new long[solversToTest.size()];
+        long cache_memory = 0;
+        // distance to best known result of each solver on each instance, for the overview plot
+        float[][] distances = new float[instances.size()][solversToTest.size()];
+
+        try(TraceWriter traces = new TraceWriter(Paths.get(ns.getString("traces")), Paths.get(ns.getString("plots")))) {
             // header of the result table :
             //   - solver names (first line)
             //   - name of each column (second line)
-            output.print(  "                         ");
+            output.print(  "                              ");
             for(String s : solversToTest)
-                output.printf("%-30s", s);
+                output.printf("%-" + columnWidth + "s", s);
             output.println();
-            output.print("instance size  best      ");
+            output.print("instance size  best bound     ");
             for(String s : solversToTest) {
-                output.print("runtime makespan ecart        ");
+                output.print(repeats == 1
+                        ? "runtime makespan ecart   gap        "
+                        : "runtime makespan   min   max ecart  ci95   gap        ");
             }
             output.println();
 
             // for all instances, load it from f
-            for(String instanceName : instances) {
+            for(int instanceId = 0; instanceId < instances.size(); instanceId++) {
+                String instanceName = instances.get(instanceId);
                 // get the best known result for this instance
-                int bestKnown = BestKnownResults.of(instanceName);
-
-                // load instance from file.
-                Path path = Paths.get("instances/", instanceName);
-                Instance instance = Instance.fromFile(path);
-
-                // print some general statistics on the instance
-                output.printf("%-8s %-5s %4d      ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown);
-
-                // run all selected solvers on the instance and print the results
+                int bestKnown = catalog.bestKnown(instanceName);
 
+                Instance instance = loaded.get(instanceName);
 
-                File file = new File("score.txt");
-                if(file.exists() && file.isFile()){
-                    file.delete();
-                }
+                // lower bound on the optimal makespan, possibly improved by the solvers
+                int lowerBound = LowerBounds.of(instance);
 
-                file.createNewFile();
+                // print some general statistics on the instance
+                output.printf("%-8s %-5s %4d %5d     ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown, lowerBound);
 
+                // traces and runtimes of the solvers on the instance, for its convergence plot
+                List<TraceBuffer> instanceTraces = new ArrayList<>();
+                long[] runtimes = new long[solvers.size()];
 
+                // run all selected solvers on the instance and print the results
                 for(int solverId = 0 ; solverId < solvers.size() ; solverId++) {
-                    // Select the next solver to run. Given the solver name passed on the command line,
-                    // we lookup the `Main.solvers` hash map to get the solver object with the given name.
-                    Solver solver = solvers.get(solverId);
-
-                    // start chronometer and compute deadline for the solver to provide a result.
-                    long start = System.currentTimeMillis();
-                    long deadline = System.currentTimeMillis() + solveTimeMs;
-                    // run the solver on the current instance
-                    Result result = solver.solve(instance, deadline);
-                    // measure elapsed time (in milliseconds)
-                    long runtime = System.currentTimeMillis() - start;
-
-                    // check that the solver returned a valid solution
-                    if(result.schedule.isEmpty() || !result.schedule.get().isValid()) {
-                        System.err.println("ERROR: solver returned an invalid schedule");
-                        System.exit(1); // bug in implementation, bail out
-                    }
-                    // we have a valid schedule
-                    Schedule schedule = result.schedule.get();
-
-                    // compute some statistics on the solution and print them.
-                    int makespan = schedule.makespan();
-                    float dist = 100f * (makespan - bestKnown) / (float) bestKnown;
-                    avg_runtimes[solverId] += (float) runtime / (float) instances.size();
-                    avg_distances[solverId] += dist / (float) instances.size();
-
-                    output.printf("%7d %8s %5.1f        ", runtime, makespan, dist);
-                    output.flush();
-
-                    //System.out.println(result.schedule.get().asciiGantt());
-
-                    if(solver instanceof  TabooSolver || solver instanceof  DescentSolver){
-
-                        ArrayList<Integer> scores = null;
-
-                        if(solver instanceof TabooSolver) scores = ((TabooSolver) solver).getMakespans();
-                        if(solver instanceof DescentSolver) scores = ((DescentSolver) solver).getMakespans();
+                    // runtime, makespan, distance to the best known result and gap of each run
+                    double[] runRuntimes = new double[repeats];
+                    double[] runMakespans = new double[repeats];
+                    double[] runDistances = new double[repeats];
+                    double[] runGaps = new double[repeats];
+
+                    for(int run = 0; run < repeats; run++) {
+                        // Select the next solver to run. Given the solver name passed on the command line, we create
+                        // a solver with the given name, seeded with the number of the run.
+                        Solver solver = run == 0 ? solvers.get(solverId) : Solver.getSolver(solversToTest.get(solverId), run);
+
+                        // each solver starts without caches, so that solvers are compared fairly
+                        releaseCaches(instance);
+
+                        SolverMetrics.reset();
+
+                        // improving solutions of the solver, only written (for the first run) once the run is over
+                        TraceBuffer trace = new TraceBuffer(ns.getInt("trace_points"));
+
+                        // start chronometer and compute deadline for the solver to provide a result.
+                        long start = System.currentTimeMillis();
+                        long deadline = System.currentTimeMillis() + solveTimeMs;
+                        // run the solver on the current instance
+                        Result result = solver.solve(instance, deadline, trace);
+                        // measure elapsed time (in milliseconds)
+                        long runtime = System.currentTimeMillis() - start;
+
+                        if(run == 0) {
+                            traces.write(instanceName, solversToTest.get(solverId), trace);
+                            instanceTraces.add(trace);
+                            runtimes[solverId] = runtime;
+                        }
+                        SolverMetrics.Snapshot metrics = SolverMetrics.snapshot();
 
-                        FileWriter fileW = new FileWriter("score.txt", true);
-                        for(int i=0; i<scores.size(); ++i){
-                            fileW.write(scores.get(i).toString() + "\n");
+                        for(TranspositionCache cache : existingCaches(instance)) {
+                            cache_lookups[solverId] += cache.hits() + cache.misses();
+                            cache_hits[solverId] += cache.hits();
+                            cache_memory = Math.max(cache_memory, cache.memoryBytes());
                         }
-                        fileW.write(solversToTest.get(solverId) + "\n");
-                        fileW.close();
 
-                        if(solver instanceof TabooSolver) ((TabooSolver) solver).deleteMakespan();
-                        if(solver instanceof DescentSolver) ((DescentSolver) solver).deleteMakespan();
+                        // check that the solver returned a valid solution
+                        if(result.schedule.isEmpty()) {
+                            System.err.println("ERROR: solver returned no schedule");
+                            System.exit(1); // bug in implementation, bail out
+                        }
+                        Optional<Schedule.Violation> violation = result.schedule.get().validate();
+                        if(violation.isPresent()) {
+                            System.err.println("ERROR: solver returned an invalid schedule: " + violation.get());
+                            System.exit(1); // bug in implementation, bail out
+                        }
+                        // we have a valid schedule
+                        Schedule schedule = result.schedule.get();
+
+                        // compute some statistics on the solution
+                        int makespan = schedule.makespan();
+                        int bound = Math.max(lowerBound, result.lowerBound);
+                        runRuntimes[run] = runtime;
+                        runMakespans[run] = makespan;
+                        runDistances[run] = 100.0 * (makespan - bestKnown) / bestKnown;
+                        runGaps[run] = 100.0 * (makespan - bound) / bound;
+
+                        if(metricsFile != null) {
+                            metricsRows.add(metricsRow(instanceName, solversToTest.get(solverId), run, runtime, makespan,
+                                    metrics, metricsFile.endsWith(".json")));
+                        }
 
+                        //System.out.println(result.schedule.get().asciiGantt());
                     }
 
+                    // print the statistics of the runs of the solver
+                    double runtime = Statistics.median(runRuntimes);
+                    double dist = Statistics.mean(runDistances);
+                    double gap = Statistics.mean(runGaps);
+                    distances[instanceId][solverId] = (float) dist;
+                    avg_runtimes[solverId] += (float) runtime / (float) instances.size();
+                    avg_distances[solverId] += (float) dist / (float) instances.size();
+                    avg_gaps[solverId] += (float) gap / (float) instances.size();
+
+                    if(repeats == 1) {
+                        output.printf("%7.0f %8.0f %5.1f %5.1f        ", runtime, runMakespans[0], dist, gap);
+                    } else {
+                        output.printf("%7.0f %8.1f %5.0f %5.0f %5.1f %5.1f %5.1f        ", runtime,
+                                Statistics.median(runMakespans), Statistics.min(runMakespans),
+                                Statistics.max(runMakespans), dist, Statistics.confidence95(runDistances), gap);
+                    }
+                    output.flush();
                 }
 
-                String command = "python3 ./plot.py ./plots " + instanceName;
-                Runtime runtime1 = Runtime.getRuntime();
-                Process process = null;
+                // the instance stays loaded until the end of the run, but not its caches
+                releaseCaches(instance);
 
-                try{
-                    process = runtime1.exec(command);
-                    process.waitFor();
-                } catch(Exception err){
-                    err.getStackTrace();
-                }
+                traces.plot(instanceName, bestKnown, solversToTest, instanceTraces, runtimes);
 
                 output.println();
             }
 
 
             // we have finished all benchmarks, compute the average solve time and distance of each solver.
-            output.printf("%-8s %-5s %4s      ", "AVG", "-", "-");
+            output.printf("%-8s %-5s %4s %5s     ", "AVG", "-", "-", "-");
             for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
-                output.printf("%7.1f %8s %5.1f        ", avg_runtimes[solverId], "-", avg_distances[solverId]);
+                if(repeats == 1) {
+                    output.printf("%7.1f %8s %5.1f %5.1f        ", avg_runtimes[solverId], "-", avg_distances[solverId], avg_gaps[solverId]);
+                } else {
+                    output.printf("%7.1f %8s %5s %5s %5.1f %5s %5.1f        ", avg_runtimes[solverId], "-", "-", "-",
+                            avg_distances[solverId], "-", avg_gaps[solverId]);
+                }
             }
+            output.println();
+            traces.overview(instances, solversToTest, distances);
 
+            // efficiency of the transposition caches
+            output.printf("%-30s", String.format("cache (%.1f MB per instance)", cache_memory / 1e6));
+            for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
+                float hitRate = cache_lookups[solverId] == 0 ? 0 : 100f * cache_hits[solverId] / cache_lookups[solverId];
+                output.printf("%-" + columnWidth + "s", String.format("%d lookups, %.1f%% hits", cache_lookups[solverId], hitRate));
+            }
+            output.println();
 
-
-
-
-
+            if(metricsFile != null) {
+                writeMetrics(metricsFile, metricsRows);
+            }
         } catch (Exception e) {
             // there was uncaught exception, print the stack trace and exit with error.
             e.printStackTrace();
             System.exit(1);
         }
     }
+
+    /** Columns of the metrics file: the counters, then the time spent in each phase. */
+    private static String metricsHeader() {
+        StringBuilder header = new StringBuilder("instance,solver,seed,runtime_ms,makespan");
+        for(SolverMetrics.Counter counter : SolverMetrics.Counter.values()) {
+            header.append(',').append(counter.name().toLowerCase());
+        }
+        for(SolverMetrics.Phase phase : SolverMetrics.Phase.values()) {
+            header.append(',').append(phase.name().toLowerCase()).append("_ms");
+        }
+        return header.toString();
+    }
+
+    /** A line of the metrics file, or a JSON object if `json` is true, with the columns of metricsHeader(). */
+    private static String metricsRow(String instance, String solver, long seed, long runtime, int makespan,
+                                     SolverMetrics.Snapshot metrics, boolean json) {
+        List<String> values = new ArrayList<>(List.of(instance, solver, Long.toString(seed), Long.toString(runtime),
+                Integer.toString(makespan)));
+        for(SolverMetrics.Counter counter : SolverMetrics.Counter.values()) {
+            values.add(Long.toString(metrics.count(counter)));
+        }
+        for(SolverMetrics.Phase phase : SolverMetrics.Phase.values()) {
+            values.add(String.format(Locale.ROOT, "%.3f", metrics.millis(phase)));
+        }
+        if(!json) {
+            return String.join(",", values);
+        }
+        String[] columns = metricsHeader().split(",");
+        StringBuilder object = new StringBuilder("{");
+        for(int i = 0; i < columns.length; i++) {
+            object.append(i == 0 ? "" : ", ").append('"').append(columns[i]).append("\": ");
+            // instance and solver names are the only strings, and contain no character to escape
+            object.append(i < 2 ? '"' + values.get(i) + '"' : values.get(i));
+        }
+        return object.append('}').toString();
+    }
+
+    /** Writes the metrics file: a CSV file with a header, or a JSON array if its name ends with .json. */
+    private static void writeMetrics(String file, List<String> rows) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if(file.endsWith(".json")) {
+            lines.add("[");
+            for(int i = 0; i < rows.size(); i++) {
+                lines.add("  " + rows.get(i) + (i < rows.size() - 1 ? "," : ""));
+            }
+            lines.add("]");
+        } else {
+            lines.add(metricsHeader());
+            lines.addAll(rows);
+        }
+        Files.write(Paths.get(file), lines);
+    }
+
+    /** Seed of the instances generated by the scaling mode. */
+    private static final int SCALING_SEED = 1;
+
+    /** Size of the instance on which the solvers are warmed up. */
+    private static final int WARMUP_JOBS = 15, WARMUP_MACHINES = 10;
+
+    /** Warm-up phase: runs each solver repeatedly during the given time on a small generated instance, so that their
+     * code is compiled by the JIT before they are timed on the instances. */
+    static void warmup(List<String> solverNames, long warmupMs) {
+        Instance instance = TaillardGenerator.generate(WARMUP_JOBS, WARMUP_MACHINES, SCALING_SEED);
+        for(String name : solverNames) {
+            Solver solver = Solver.getSolver(name);
+            long end = System.currentTimeMillis() + warmupMs;
+            // solvers that return before the deadline (e.g. greedy ones) are run again until the time is up
+            while(end - System.currentTimeMillis() > 1) {
+                releaseCaches(instance);
+                solver.solve(instance, end);
+            }
+        }
+        releaseCaches(instance);
+    }
+
+    /** The transposition caches of the given instance and of its reversed view, for those a solver used. */
+    private static List<TranspositionCache> existingCaches(Instance instance) {
+        return Stream.of(instance, instance.reversed())
+                .flatMap(i -> TranspositionCache.existing(i).stream())
+                .collect(Collectors.toList());
+    }
+
+    /** Drops the transposition caches of the given instance and of its reversed view. */
+    private static void releaseCaches(Instance instance) {
+        TranspositionCache.release(instance);
+        TranspositionCache.release(instance.reversed());
+    }
+
+    /** Scaling mode: runs each solver on a generated instance of each given size and reports, for each size, the
+     * number of resource orders decoded per second and, for each solver, the makespan found, the number of iterations
+     * and of solutions evaluated per second (as counted by SolverMetrics) and the peak heap usage during the solve. */
+    private static void scaling(List<String> sizes, List<String> solverNames, List<Solver> solvers, long solveTimeMs,
+                                PrintStream output) {
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .collect(Collectors.toList());
+
+        output.print(  "                               ");
+        for(String s : solverNames)
+            output.printf("%-42s", s);
+        output.println();
+        output.print("size       tasks   decodes/s  ");
+        for(String s : solverNames) {
+            output.print(" makespan    iter/s    evals/s  heap MB   ");
+        }
+        output.println();
+
+        for(String size : sizes) {
+            String[] dimensions = size.split("x");
+            if(dimensions.length != 2) {
+                System.err.println("ERROR: invalid size \"" + size + "\", expected JOBSxMACHINES (e.g. 100x20).");
+                System.exit(1);
+            }
+            Instance instance = TaillardGenerator.generate(Integer.parseInt(dimensions[0]),
+                    Integer.parseInt(dimensions[1]), SCALING_SEED);
+
+            // decoding throughput, on the solution of a greedy solver during 200 ms
+            ResourceOrder order = new ResourceOrder(new BasicSolver().solve(instance, Long.MAX_VALUE).schedule.get());
+            long decodes = 0;
+            long start = System.nanoTime();
+            while(System.nanoTime() - start < 200_000_000L) {
+                order.toSchedule();
+                decodes++;
+            }
+            double decodesPerSecond = decodes / ((System.nanoTime() - start) / 1e9);
+            output.printf("%-10s %6d %10.0f   ", size, instance.numJobs * instance.numTasks, decodesPerSecond);
+            output.flush();
+
+            for(Solver solver : solvers) {
+                releaseCaches(instance);
+                System.gc();
+                long baseline = heap.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+                heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+                SolverMetrics.reset();
+
+                long begin = System.currentTimeMillis();
+                Result result = solver.solve(instance, System.currentTimeMillis() + solveTimeMs);
+                long runtime = Math.max(1, System.currentTimeMillis() - begin);
+
+                long peak = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+                SolverMetrics.Snapshot metrics = SolverMetrics.snapshot();
+                String makespan = result.schedule.map(s -> Integer.toString(s.makespan())).orElse("-");
+                output.printf("%9s %9.0f %10.0f %8.1f   ", makespan,
+                        1000.0 * metrics.count(SolverMetrics.Counter.ITERATIONS) / runtime,
+                        1000.0 * metrics.count(SolverMetrics.Counter.EVALUATIONS) / runtime,
+                        Math.max(0, peak - baseline) / 1e6);
+                output.flush();
+            }
+            releaseCaches(instance);
+            output.println();
+        }
+    }
 }
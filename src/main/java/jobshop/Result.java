@@ -16,11 +16,29 @@ public class Result {
     /** Reason why the solver exited with this solution. */
     public final ExitCause cause;
 
+    /** Lower bound on the optimal makespan proved by the solver, or 0 if the solver did not compute any. */
+    public final int lowerBound;
+
     /** Creates a new Result object with the corresponding fields. */
     public Result(Instance instance, Optional<Schedule> schedule, ExitCause cause) {
+        this(instance, schedule, cause, 0);
+    }
+
+    /** Creates a new Result object for a solver that also proved a lower bound on the optimal makespan. */
+    public Result(Instance instance, Optional<Schedule> schedule, ExitCause cause, int lowerBound) {
         this.instance = instance;
         this.schedule = schedule;
         this.cause = cause;
+        this.lowerBound = lowerBound;
+    }
+
+    /** Creates a new Result object for a solver that knows a lower bound on the optimal makespan.
+     * If the schedule reaches the bound, the solution is reported as proved optimal whatever the given cause. */
+    public static Result withLowerBound(Instance instance, Optional<Schedule> schedule, ExitCause cause, int lowerBound) {
+        if(schedule.isPresent() && schedule.get().makespan() <= lowerBound) {
+            cause = ExitCause.ProvedOptimal;
+        }
+        return new Result(instance, schedule, cause, lowerBound);
     }
 
     /** Documents the reason why a solver returned the solution. */
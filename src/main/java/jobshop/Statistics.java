@@ -0,0 +1,59 @@
+package jobshop;
+
+import java.util.Arrays;
+
+/** Summary statistics of the results of repeated runs of a solver, as reported by Main. */
+final class Statistics {
+
+    /** Two-sided 95% quantiles of the Student's t distribution, by number of degrees of freedom (from 1 to 30). */
+    private static final double[] T95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    /** Two-sided 95% quantile of the normal distribution, used beyond 30 degrees of freedom. */
+    private static final double Z95 = 1.960;
+
+    private Statistics() {}
+
+    static double mean(double[] values) {
+        double sum = 0;
+        for(double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    /** Median of the given values: the mean of the two middle values if there is an even number of them. */
+    static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    static double min(double[] values) {
+        return Arrays.stream(values).min().orElse(Double.NaN);
+    }
+
+    static double max(double[] values) {
+        return Arrays.stream(values).max().orElse(Double.NaN);
+    }
+
+    /** Half-width of the 95% confidence interval of the mean of the given values (Student's t), 0 for a single value.
+     * The runs are considered as independent samples: the interval is mean() +/- this value. */
+    static double confidence95(double[] values) {
+        int n = values.length;
+        if(n < 2) {
+            return 0;
+        }
+        double mean = mean(values);
+        double squares = 0;
+        for(double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        double deviation = Math.sqrt(squares / (n - 1));
+        double quantile = n - 1 <= T95.length ? T95[n - 2] : Z95;
+        return quantile * deviation / Math.sqrt(n);
+    }
+}
@@ -0,0 +1,133 @@
+package jobshop;
+
+/** Generator of random instances with the scheme of Taillard ("Benchmarks for basic scheduling problems", 1993).
+ *
+ * Durations are drawn uniformly in [1, 99] from a time seed, job after job, and the order of the machines of each job
+ * is a random permutation drawn from a machine seed. Both use the portable linear congruential generator of Taillard
+ * (the "minimal standard" of Park and Miller), so that the seeds of the paper reproduce the instances ta01 to ta80
+ * exactly, and other seeds give new instances of any size.
+ */
+public final class TaillardGenerator {
+
+    private static final int A = 16807;
+    private static final int B = 127773;
+    private static final int C = 2836;
+    private static final int M = Integer.MAX_VALUE;
+
+    /** Time seeds of the instances ta01 to ta80. */
+    private static final int[] TIME_SEEDS = {
+             840612802, 1314640371, 1227221349,  342269428, 1603221416,
+            1357584978,   44531661,  302545136, 1153780144,   73896786,
+             533484900, 1894307698,  874340513, 1124986343, 1463788335,
+            1056908795,  195672285,  961965583, 1610169733,  532794656,
+            1035939303,    5997802, 1357503601,  806159563, 1902815253,
+            1503184031, 1032645967,  229894219,  823349822, 1297900341,
+              98640593, 1839268120,  573875290, 1670898570, 1118914567,
+             178750207, 1549372605,  798174738,  553410952, 1661531649,
+            1841414609, 2116959593,  796392706,  532496463, 2020525633,
+             524444252, 1569394691, 1460267840,  198324822,   38071822,
+                 17271,  660481279,  352229765, 1197518780, 1376020303,
+            2106639239, 1765352082, 1105092880,  907248070, 2011630757,
+               8493988, 1991925010,  342093237, 1634043183,  341706507,
+             320167954, 1089696753,  433032965,  615974477,  236150141,
+             302034063, 1437643198, 1792475497, 1647273132,  696480901,
+            1785569423,  117806902, 1639154709, 2007423389,  682761130
+    };
+
+    /** Machine seeds of the instances ta01 to ta80. */
+    private static final int[] MACHINE_SEEDS = {
+             398197754,  386720536,  316176388, 1806358582, 1501949241,
+            1734077082, 1374316395, 2092186050, 1393392374, 1544979948,
+             317419073, 1474268163,  509669280, 1209573668,  529048107,
+              25321885, 1717580117, 1353003786, 1734469503,  998486810,
+             773961798, 1872541150,  722225039, 1166962073, 1879990068,
+            1850351876,   99711329, 1158117804,  108033225,  489486403,
+            1981283465,  248890888, 2081512253,  788294565, 1074349202,
+             294279708,  596993084,  151685779, 1329272528, 1173386294,
+            1357882888, 1546338557, 1230864158,  254174057,  978943053,
+             185526083,  487269855, 1631446539, 1937476577, 1541985579,
+                718939,  449650254,  949737911,  166840558,  483922052,
+             955932362, 1209982549, 1349003108,  919544535, 1845447001,
+               2738939,  709517751,  786960785,  973178279,  286513148,
+            1411193018,  298068750, 1589656152,  331205412,  592292984,
+            1203569070, 1692025209, 1039908559, 1012841433, 1689682358,
+            1092647459,  739059626, 1319962509,  749368241,  262763021
+    };
+
+    /** Number of jobs and machines of each group of ten instances of Taillard. */
+    private static final int[][] SIZES = {
+            {15, 15}, {20, 15}, {20, 20}, {30, 15}, {30, 20}, {50, 15}, {50, 20}, {100, 20}
+    };
+
+    private TaillardGenerator() {}
+
+    /** Current seed of a generator, updated by each draw. */
+    private static final class Seed {
+        int value;
+
+        Seed(int value) {
+            if(value <= 0 || value >= M) {
+                throw new RuntimeException("Invalid seed " + value + ": must be in [1, 2^31 - 2]");
+            }
+            this.value = value;
+        }
+
+        /** Draws an integer uniformly in [low, high]. Schrage's method computes A * seed mod M without overflow. */
+        int uniform(int low, int high) {
+            int k = value / B;
+            value = A * (value % B) - k * C;
+            if(value < 0) {
+                value += M;
+            }
+            return low + (int) ((double) value / M * (high - low + 1));
+        }
+    }
+
+    /** Generates an instance from the given seeds.
+     *
+     * @param name Name of the instance.
+     * @param timeSeed Seed of the durations, in [1, 2^31 - 2].
+     * @param machineSeed Seed of the orders of the machines, in [1, 2^31 - 2].
+     */
+    public static Instance generate(String name, int numJobs, int numMachines, int timeSeed, int machineSeed) {
+        Instance pb = new Instance(name, numJobs, numMachines);
+        Seed time = new Seed(timeSeed);
+        for(int job = 0; job < numJobs; job++) {
+            for(int task = 0; task < numMachines; task++) {
+                pb.durations[job][task] = time.uniform(1, 99);
+            }
+        }
+        Seed machine = new Seed(machineSeed);
+        for(int job = 0; job < numJobs; job++) {
+            int[] machines = pb.machines[job];
+            for(int task = 0; task < numMachines; task++) {
+                machines[task] = task;
+            }
+            for(int task = 0; task < numMachines; task++) {
+                int other = machine.uniform(task, numMachines - 1);
+                int tmp = machines[task];
+                machines[task] = machines[other];
+                machines[other] = tmp;
+            }
+        }
+        return pb;
+    }
+
+    /** Generates an instance of the given size from a single seed, from which both seeds of Taillard are drawn. */
+    public static Instance generate(int numJobs, int numMachines, int seed) {
+        Seed seeds = new Seed(seed);
+        int timeSeed = seeds.uniform(1, M - 1);
+        int machineSeed = seeds.uniform(1, M - 1);
+        return generate(numJobs + "x" + numMachines + "-" + seed, numJobs, numMachines, timeSeed, machineSeed);
+    }
+
+    /** Generates the instance ta01 to ta80 of the given number (1 to 80). */
+    public static Instance taillard(int number) {
+        if(number < 1 || number > TIME_SEEDS.length) {
+            throw new RuntimeException("No Taillard instance ta" + number);
+        }
+        int[] size = SIZES[(number - 1) / 10];
+        return generate(String.format("ta%02d", number), size[0], size[1],
+                TIME_SEEDS[number - 1], MACHINE_SEEDS[number - 1]);
+    }
+}
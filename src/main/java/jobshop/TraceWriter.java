@@ -0,0 +1,115 @@
+package jobshop;
+
+import jobshop.solvers.TraceBuffer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Writes the convergence traces of the solvers (see TraceBuffer) to CSV files, and their plots to SVG files (see
+ * ConvergencePlot), on a background thread.
+ *
+ * Each trace is written to {instance}-{solver}.csv in the directory of the traces, with one line per improvement: the
+ * time at which it was found (in milliseconds since the beginning of the run), the iteration and the makespan. As
+ * traces are only handed over once a run is over and written by another thread, no trace I/O happens on the threads
+ * of the solvers or while they are timed. Plots are rendered by the same thread, while the solvers go on with the
+ * next instance.
+ */
+final class TraceWriter implements AutoCloseable {
+
+    static final String HEADER = "time_ms,iteration,makespan";
+
+    private final Path directory;
+    /** Directory of the plots, null if no plot is written. */
+    private final Path plots;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trace-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Future<?>> pending = new ArrayList<>();
+
+    TraceWriter(Path directory, Path plots) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.plots = plots == null ? null : Files.createDirectories(plots);
+    }
+
+    /** File of the trace of the given solver on the given instance. */
+    Path file(String instance, String solver) {
+        return directory.resolve(instance + "-" + solver + ".csv");
+    }
+
+    /** Schedules the writing of the given trace, which must not be modified anymore. */
+    void write(String instance, String solver, TraceBuffer trace) {
+        Path file = file(instance, solver);
+        pending.add(executor.submit(() -> {
+            try(BufferedWriter out = Files.newBufferedWriter(file)) {
+                out.write(HEADER);
+                out.newLine();
+                for(int i = 0; i < trace.size(); i++) {
+                    long nanos = trace.nanos(i);
+                    out.write(Long.toString(nanos / 1000000));
+                    out.write('.');
+                    out.write(Long.toString(nanos / 1000 % 1000 + 1000), 1, 3);
+                    out.write(',');
+                    out.write(Long.toString(trace.iteration(i)));
+                    out.write(',');
+                    out.write(Integer.toString(trace.makespan(i)));
+                    out.newLine();
+                }
+            }
+            return null;
+        }));
+    }
+
+    /** Schedules the plot of the convergence of the given solvers on an instance (see ConvergencePlot.convergence()),
+     * in {instance}.svg. The traces must not be modified anymore. */
+    void plot(String instance, int bestKnown, List<String> solvers, List<TraceBuffer> traces, long[] runtimes) {
+        if(plots != null) {
+            Path file = plots.resolve(instance + ".svg");
+            pending.add(executor.submit(() ->
+                    Files.writeString(file, ConvergencePlot.convergence(instance, bestKnown, solvers, traces, runtimes))));
+        }
+    }
+
+    /** Schedules the plot of the overview of a run (see ConvergencePlot.overview()), in overview.svg. */
+    void overview(List<String> instances, List<String> solvers, float[][] distances) {
+        if(plots != null) {
+            Path file = plots.resolve("overview.svg");
+            pending.add(executor.submit(() ->
+                    Files.writeString(file, ConvergencePlot.overview(instances, solvers, distances))));
+        }
+    }
+
+    /** Waits until all the traces scheduled so far are written. */
+    private void flush() throws IOException {
+        try {
+            for(Future<?> write : pending) {
+                write.get();
+            }
+            pending.clear();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing the traces", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Cannot write a trace", e.getCause());
+        }
+    }
+
+    /** Waits until all traces are written, and stops the background thread. */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -3,10 +3,8 @@ package jobshop.encodings;
 import jobshop.Instance;
 
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.IntStream;
 
 /** Encoding of the solution of a jobshop problem by job numbers. */
 public final class JobNumbers extends Encoding {
@@ -26,39 +24,70 @@ public final class JobNumbers extends Encoding {
         Arrays.fill(jobs, -1);
     }
 
-    /** Creates a new encoding based on the given schedule. */
+    /** Creates a new encoding based on the given schedule: tasks appear by increasing start time.
+     *
+     * All tasks are sorted at once on a primitive key holding the start time, then the job and the task, so that the
+     * tasks of a job always appear in order, even with tasks of null duration.
+     */
     public JobNumbers(Schedule schedule) {
         super(schedule.instance);
 
         this.jobs = new int[instance.numJobs * instance.numTasks];
 
-        // for each job indicates which is the next task to be scheduled
-        int[] nextOnJob = new int[instance.numJobs];
-
-        while(Arrays.stream(nextOnJob).anyMatch(t -> t < instance.numTasks)) {
-            Task next = IntStream
-                    // for all jobs numbers
-                    .range(0, instance.numJobs)
-                    // build the next task for this job
-                    .mapToObj(j -> new Task(j, nextOnJob[j]))
-                    // only keep valid tasks (some jobs have no task left to be executed)
-                    .filter(t -> t.task < instance.numTasks)
-                    // select the task with the earliest execution time
-                    .min(Comparator.comparing(t -> schedule.startTime(t.job, t.task)))
-                    .get();
-
-            this.addTaskOfJob(next.job);
-            nextOnJob[next.job] += 1;
+        long[] keys = new long[jobs.length];
+        for(int j = 0; j < instance.numJobs; j++) {
+            for(int t = 0; t < instance.numTasks; t++) {
+                keys[j * instance.numTasks + t] = ((long) schedule.startTime(j, t) << 32) | (j * instance.numTasks + t);
+            }
+        }
+        Arrays.sort(keys);
+        for(long key : keys) {
+            int operation = (int) key; // lower 32 bits
+            this.addTaskOfJob(operation / instance.numTasks);
         }
     }
 
+    /** Creates a new encoding based on the given resource order, without building a schedule.
+     *
+     * Tasks appear in a topological order of the job orders and of the machine orders.
+     * Fails if the resource order does not represent a valid solution.
+     */
+    public JobNumbers(ResourceOrder order) {
+        super(order.instance);
+
+        int[] sequence = order.topologicalJobs();
+        if(sequence == null) {
+            throw new RuntimeException("Cannot convert an invalid ResourceOrder");
+        }
+        this.jobs = sequence;
+        this.nextToSet = sequence.length;
+    }
+
     /** Schedule the next task of the given job. */
     public void addTaskOfJob(int jobNumber) {
         this.jobs[nextToSet++] = jobNumber;
     }
 
+    /** Converts this encoding to a resource order, without building a schedule: the tasks of each machine are
+     * in their order of appearance. */
+    public ResourceOrder toResourceOrder() {
+        ResourceOrder order = new ResourceOrder(instance);
+        int[] nextTask = new int[instance.numJobs];
+        for(int i = 0; i < nextToSet; i++) {
+            int job = jobs[i];
+            int task = nextTask[job]++;
+            order.addTaskToMachine(instance.machine(job, task), new Task(job, task));
+        }
+        return order;
+    }
+
     @Override
     public Optional<Schedule> toSchedule() {
+        return Optional.of(decode(instance, jobs));
+    }
+
+    /** Schedule in which the tasks, given by the job numbers of `jobs`, start as early as possible in this order. */
+    static Schedule decode(Instance instance, int[] jobs) {
         // time at which each machine is going to be freed
         int[] nextFreeTimeResource = new int[instance.numMachines];
 
@@ -75,13 +104,14 @@ public final class JobNumbers extends Encoding {
             // earliest start time for this task
             int est = task == 0 ? 0 : schedule.endTime(job, task-1);
             est = Math.max(est, nextFreeTimeResource[machine]);
+            est = Math.max(est, instance.release(job, task));
 
             schedule.setStartTime(job, task, est);
             nextFreeTimeResource[machine] = est + instance.duration(job, task);
             nextTask[job] = task + 1;
         }
 
-        return Optional.of(schedule);
+        return schedule;
     }
 
     @Override
@@ -3,9 +3,7 @@ package jobshop.encodings;
 import jobshop.Instance;
 
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.Optional;
-import java.util.stream.IntStream;
 
 /** Encoding of a solution by the ordering of tasks on each machine. */
 public final class ResourceOrder extends Encoding {
@@ -17,6 +15,13 @@ public final class ResourceOrder extends Encoding {
     // for each machine, indicate how many tasks have been initialized
     final int[] nextFreeSlot;
 
+    // Zobrist hash: xor of the keys of all (machine, position, job) triples of the resource order
+    private long hash;
+
+    // for each machine, true if its row of tasksByMachine may be shared with a snapshot and must be copied before
+    // being modified
+    private final boolean[] shared;
+
     /** Creates a new empty resource order. */
     public ResourceOrder(Instance instance)
     {
@@ -27,6 +32,8 @@ public final class ResourceOrder extends Encoding {
 
         // no task scheduled on any machine (0 is the default value)
         nextFreeSlot = new int[instance.numMachines];
+
+        shared = new boolean[instance.numMachines];
     }
 
     /** Creates a resource order from a schedule. */
@@ -35,30 +42,87 @@ public final class ResourceOrder extends Encoding {
         super(schedule.instance);
         Instance pb = schedule.instance;
 
-        this.tasksByMachine = new Task[pb.numMachines][];
+        this.tasksByMachine = new Task[pb.numMachines][pb.numJobs];
         this.nextFreeSlot = new int[instance.numMachines];
+        this.shared = new boolean[instance.numMachines];
 
-        for(int m = 0; m<schedule.instance.numMachines ; m++) {
-            final int machine = m;
+        // for each machine, its tasks (one per job) by increasing start time, then job: the keys hold the start time
+        // in their upper 32 bits and the job in their lower 31 bits. Tasks of null duration (in sub-instances) come
+        // first among the tasks with the same start time, so that they do not wait for the others once decoded.
+        long[][] keys = new long[pb.numMachines][pb.numJobs];
+        for(int j = 0; j < pb.numJobs; j++) {
+            for(int t = 0; t < pb.numTasks; t++) {
+                long nonNull = pb.duration(j, t) == 0 ? 0 : 1L << 31;
+                keys[pb.machine(j, t)][j] = ((long) schedule.startTime(j, t) << 32) | nonNull | j;
+            }
+        }
 
-            // for this machine, find all tasks that are executed on it and sort them by their start time
-            tasksByMachine[m] =
-                    IntStream.range(0, pb.numJobs) // all job numbers
-                            .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine))) // all tasks on this machine (one per job)
-                            .sorted(Comparator.comparing(t -> schedule.startTime(t.job, t.task))) // sorted by start time
-                            .toArray(Task[]::new); // as new array and store in tasksByMachine
+        for(int m = 0; m<schedule.instance.numMachines ; m++) {
+            Arrays.sort(keys[m]);
+            for(int i = 0; i < pb.numJobs; i++) {
+                int job = (int) (keys[m][i] & Integer.MAX_VALUE);
+                tasksByMachine[m][i] = new Task(job, pb.task_with_machine(job, m));
+                hash ^= key(m, i, job);
+            }
 
             // indicate that all tasks have been initialized for machine m
             nextFreeSlot[m] = instance.numJobs;
         }
     }
 
+    /** Creates a resource order with the same tasks as the given one.
+     * @param share If true, the rows of tasks are shared (copy-on-write), otherwise they are copied. */
+    private ResourceOrder(ResourceOrder other, boolean share) {
+        super(other.instance);
+        this.tasksByMachine = new Task[instance.numMachines][];
+        this.nextFreeSlot = other.nextFreeSlot.clone();
+        this.shared = new boolean[instance.numMachines];
+        this.hash = other.hash;
+        for(int m = 0; m < instance.numMachines; m++) {
+            if(share) {
+                tasksByMachine[m] = other.tasksByMachine[m];
+                shared[m] = true;
+                other.shared[m] = true;
+            } else {
+                tasksByMachine[m] = other.tasksByMachine[m].clone();
+            }
+        }
+    }
+
+    /** Makes sure that the row of tasks of the given machine is not shared, before modifying it. */
+    private void own(int machine) {
+        if(shared[machine]) {
+            tasksByMachine[machine] = tasksByMachine[machine].clone();
+            shared[machine] = false;
+        }
+    }
+
+    /** Zobrist key of the given job at the given position of a machine (splitmix64 finalizer).
+     * Keys are computed rather than stored in a table, which would have numMachines * numJobs^2 entries. */
+    private static long key(int machine, int position, int job) {
+        long z = (((long) machine << 42) ^ ((long) position << 21) ^ job) + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Zobrist hash of this resource order, maintained in constant time by every modification.
+     *
+     * Two equal resource orders of the same instance have the same hash, and two different ones have the same hash
+     * with a probability of about 2^-64.
+     */
+    public long zobristHash() {
+        return hash;
+    }
+
     /** Adds the given task to the queue of the given machine. */
     public void addTaskToMachine(int machine, Task task) {
         if(instance.machine(task) != machine) {
             throw new RuntimeException("Task " + task + " cannot be scheduled on machine "+machine);
         }
+        own(machine);
         tasksByMachine[machine][nextFreeSlot[machine]] = task;
+        hash ^= key(machine, nextFreeSlot[machine], task.job);
         nextFreeSlot[machine] += 1;
     }
 
@@ -79,75 +143,146 @@ public final class ResourceOrder extends Encoding {
      * @param indexTask2 Position of the second task in the machine's queue
      */
     public void swapTasks(int machine, int indexTask1, int indexTask2) {
+        own(machine);
         Task tmp = tasksByMachine[machine][indexTask1];
         tasksByMachine[machine][indexTask1] = tasksByMachine[machine][indexTask2];
         tasksByMachine[machine][indexTask2] = tmp;
+        int job1 = tasksByMachine[machine][indexTask1].job;
+        int job2 = tasksByMachine[machine][indexTask2].job;
+        hash ^= key(machine, indexTask1, job2) ^ key(machine, indexTask2, job1)
+                ^ key(machine, indexTask1, job1) ^ key(machine, indexTask2, job2);
+    }
+
+    /** Writes the job of every task in this resource order, machine after machine, into the given array.
+     *
+     * The array must have a size of numMachines * numJobs. Together with restoreJobs(), this allows keeping many
+     * solutions in memory in a compact form.
+     */
+    public void saveJobs(int[] jobs) {
+        for(int m = 0; m < instance.numMachines; m++) {
+            for(int i = 0; i < instance.numJobs; i++) {
+                jobs[m * instance.numJobs + i] = tasksByMachine[m][i].job;
+            }
+        }
+    }
+
+    /** Replaces the order of the tasks on all machines by the one stored in the given array by saveJobs(). */
+    public void restoreJobs(int[] jobs) {
+        hash = 0;
+        for(int m = 0; m < instance.numMachines; m++) {
+            own(m);
+            for(int i = 0; i < instance.numJobs; i++) {
+                int job = jobs[m * instance.numJobs + i];
+                tasksByMachine[m][i] = new Task(job, instance.task_with_machine(job, m));
+                hash ^= key(m, i, job);
+            }
+            nextFreeSlot[m] = instance.numJobs;
+        }
+    }
+
+    /** The same solution, for the reversed instance (see Instance.reversed()): the order of the tasks is reversed on
+     * every machine. Reversing a resource order of the reversed instance gives a resource order of the original one.
+     *
+     * This resource order must be complete.
+     */
+    public ResourceOrder reversed() {
+        Instance mirror = instance.reversed();
+        ResourceOrder reversed = new ResourceOrder(mirror);
+        for(int m = 0; m < instance.numMachines; m++) {
+            for(int i = instance.numJobs - 1; i >= 0; i--) {
+                Task t = tasksByMachine[m][i];
+                reversed.addTaskToMachine(m, new Task(t.job, instance.numTasks - 1 - t.task));
+            }
+        }
+        return reversed;
     }
 
     @Override
     public Optional<Schedule> toSchedule() {
-        // indicate for each task that have been scheduled, its start time
-        Schedule schedule = new Schedule(instance);
+        int[] sequence = topologicalJobs();
+        if(sequence == null) {
+            // there is a cyclic dependency, there is no solution for this resource ordering
+            return Optional.empty();
+        }
+        return Optional.of(JobNumbers.decode(instance, sequence));
+    }
 
-        // for each job, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByJob = new int[instance.numJobs];
+    /** Job numbers of all tasks in a topological order of the job orders and machine orders (as in JobNumbers), or
+     * null if there is a cycle. Linear in the number of tasks.
+     *
+     * A task can be scheduled once it is the next one both on its job and on its machine. Each time a task is
+     * scheduled, only two tasks may become schedulable: the next task of its job and the next task of its machine.
+     */
+    int[] topologicalJobs() {
+        int numTasks = instance.numJobs * instance.numTasks;
+        int[] sequence = new int[numTasks];
 
-        // for each machine, how many tasks have been scheduled (0 initially)
+        // for each job / machine, how many tasks have been scheduled (0 initially)
+        int[] nextToScheduleByJob = new int[instance.numJobs];
         int[] nextToScheduleByMachine = new int[instance.numMachines];
 
-        // for each machine, earliest time at which the machine can be used
-        int[] releaseTimeOfMachine = new int[instance.numMachines];
-
-
-        // loop while there remains a job that has unscheduled tasks
-        while(IntStream.range(0, instance.numJobs).anyMatch(m -> nextToScheduleByJob[m] < instance.numTasks)) {
-
-            // selects a task that has no unscheduled predecessor on its job and machine :
-            //  - it is the next to be schedule on a machine
-            //  - it is the next to be scheduled on its job
-            // If there is no such task, we have cyclic dependency and the solution is invalid.
-            Optional<Task> schedulable =
-                    IntStream.range(0, instance.numMachines) // all machines ...
-                    .filter(m -> nextToScheduleByMachine[m] < instance.numJobs) // ... with unscheduled jobs
-                    .mapToObj(m -> this.tasksByMachine[m][nextToScheduleByMachine[m]]) // tasks that are next to schedule on a machine ...
-                    .filter(task -> task.task == nextToScheduleByJob[task.job])  // ... and on their job
-                    .findFirst(); // select the first one if any
-
-            if(schedulable.isPresent()) {
-                // we have a schedulable task, lets call it t
-                Task t = schedulable.get();
-                int machine = instance.machine(t.job, t.task);
-
-                // compute the earliest start time (est) of the task
-                int est = t.task == 0 ? 0 : schedule.endTime(t.job, t.task-1);
-                est = Math.max(est, releaseTimeOfMachine[instance.machine(t)]);
-                schedule.setStartTime(t.job, t.task, est);
-
-                // mark the task as scheduled
-                nextToScheduleByJob[t.job]++;
-                nextToScheduleByMachine[machine]++;
-                // increase the release time of the machine
-                releaseTimeOfMachine[machine] = est + instance.duration(t.job, t.task);
-            } else {
-                // no tasks are schedulable, there is no solution for this resource ordering
-                return Optional.empty();
+        // jobs whose next task can be scheduled: each task becomes schedulable exactly once
+        int[] ready = new int[instance.numJobs];
+        int numReady = 0;
+        for(int m = 0; m < instance.numMachines; m++) {
+            Task first = tasksByMachine[m][0];
+            if(first.task == 0) {
+                ready[numReady++] = first.job;
+            }
+        }
+
+        int scheduled = 0;
+        while(numReady > 0) {
+            int job = ready[--numReady];
+            int task = nextToScheduleByJob[job]++;
+            int machine = instance.machine(job, task);
+            nextToScheduleByMachine[machine]++;
+            sequence[scheduled++] = job;
+
+            // next task of the job, if it is also the next one on its machine
+            if(task + 1 < instance.numTasks) {
+                int nextMachine = instance.machine(job, task + 1);
+                if(nextToScheduleByMachine[nextMachine] < instance.numJobs
+                        && tasksByMachine[nextMachine][nextToScheduleByMachine[nextMachine]].job == job) {
+                    ready[numReady++] = job;
+                }
+            }
+            // next task of the machine, if it is also the next one of its job
+            if(nextToScheduleByMachine[machine] < instance.numJobs) {
+                Task next = tasksByMachine[machine][nextToScheduleByMachine[machine]];
+                if(next.task == nextToScheduleByJob[next.job]) {
+                    ready[numReady++] = next.job;
+                }
             }
         }
-        // we exited the loop : all tasks have been scheduled successfully
-        return Optional.of(schedule);
+        return scheduled == numTasks ? sequence : null;
     }
 
-    /** Creates an exact copy of this resource order.
-     *
-     * May fail if the resource order does not represent a valid solution.
-     */
+    /** Creates an exact copy of this resource order, in O(numMachines * numJobs). */
     public ResourceOrder copy() {
-        var schedule = this.toSchedule();
-        if (schedule.isEmpty()) {
-            throw new RuntimeException("Cannot copy an invalid ResourceOrder");
-        } else {
-            return new ResourceOrder(schedule.get());
+        return new ResourceOrder(this, false);
+    }
+
+    /** Overwrites the given resource order, of the same instance, with the tasks of this one. */
+    public void copyInto(ResourceOrder target) {
+        if(target.instance != instance) {
+            throw new RuntimeException("Cannot copy a resource order into one of another instance");
         }
+        for(int m = 0; m < instance.numMachines; m++) {
+            target.own(m);
+            System.arraycopy(tasksByMachine[m], 0, target.tasksByMachine[m], 0, instance.numJobs);
+        }
+        System.arraycopy(nextFreeSlot, 0, target.nextFreeSlot, 0, instance.numMachines);
+        target.hash = hash;
+    }
+
+    /** Creates a copy of this resource order that shares the rows of tasks of each machine with it, in O(numMachines).
+     *
+     * A row is only copied by the first modification of the machine, either in this resource order or in the
+     * snapshot: keeping many solutions that differ on a few machines only costs the rows that changed.
+     */
+    public ResourceOrder snapshot() {
+        return new ResourceOrder(this, true);
     }
 
     @Override
@@ -172,13 +307,11 @@ public final class ResourceOrder extends Encoding {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ResourceOrder that = (ResourceOrder) o;
-        return Arrays.deepEquals(tasksByMachine, that.tasksByMachine) && Arrays.equals(nextFreeSlot, that.nextFreeSlot);
+        return hash == that.hash && Arrays.deepEquals(tasksByMachine, that.tasksByMachine) && Arrays.equals(nextFreeSlot, that.nextFreeSlot);
     }
 
     @Override
     public int hashCode() {
-        int result = Arrays.hashCode(tasksByMachine);
-        result = 31 * result + Arrays.hashCode(nextFreeSlot);
-        return result;
+        return Long.hashCode(hash);
     }
 }
\ No newline at end of file
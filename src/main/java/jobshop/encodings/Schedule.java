@@ -52,33 +52,94 @@ public class Schedule extends Encoding {
 
     /** Returns true if this schedule is valid (no constraint is violated) */
     public boolean isValid() {
+        return validate().isEmpty();
+    }
+
+    /** A constraint violated by a schedule. */
+    public static final class Violation {
+        /** Task that starts too early. */
+        public final Task task;
+        /** Task with which `task` overlaps: its predecessor in the job, or a task of the same machine. Null if `task`
+         * starts before its release date. */
+        public final Task other;
+        /** Machine on which the two tasks overlap, -1 if the violation is between two tasks of a job. */
+        public final int machine;
+
+        private final String description;
+
+        Violation(Task task, Task other, int machine, String description) {
+            this.task = task;
+            this.other = other;
+            this.machine = machine;
+            this.description = description;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    /** Checks all constraints of the schedule and returns the first violation found, if any.
+     *
+     * The job constraints are checked first. Then, for each machine, its tasks are sorted by start time and end time
+     * (a task of null duration comes first), so that only consecutive tasks need to be compared. Machines are checked
+     * in parallel, the violation reported being the one of the machine with the smallest index.
+     */
+    public Optional<Violation> validate() {
         for(int j = 0; j<instance.numJobs ; j++) {
-            for(int t = 1; t< instance.numTasks ; t++) {
-                if(startTime(j, t-1) + instance.duration(j, t-1) > startTime(j, t))
-                    return false;
-            }
             for(int t = 0; t< instance.numTasks ; t++) {
-                if(startTime(j, t) < 0)
-                    return false;
+                if(startTime(j, t) < instance.release(j, t)) {
+                    return Optional.of(new Violation(new Task(j, t), null, -1,
+                            "task " + new Task(j, t) + " starts at " + startTime(j, t)
+                                    + " before its release date " + instance.release(j, t)));
+                }
+                if(t > 0 && endTime(j, t-1) > startTime(j, t)) {
+                    return Optional.of(new Violation(new Task(j, t), new Task(j, t-1), -1,
+                            "task " + new Task(j, t) + " starts at " + startTime(j, t)
+                                    + " before the end of " + new Task(j, t-1) + " at " + endTime(j, t-1)));
+                }
             }
         }
 
-        for (int machine = 0; machine < instance.numMachines ; machine++) {
-            for(int j1 = 0; j1< instance.numJobs ; j1++) {
-                int t1 = instance.task_with_machine(j1, machine);
-                for(int j2 = j1+1; j2< instance.numJobs ; j2++) {
-                    int t2 = instance.task_with_machine(j2, machine);
-
-                    boolean t1_first = endTime(j1, t1) <= startTime(j2, t2);
-                    boolean t2_first = endTime(j2, t2) <= startTime(j1, t1);
+        // for each machine, (start time, end time) of its tasks packed in a long: start times are not negative
+        long[][] intervals = new long[instance.numMachines][instance.numJobs];
+        for(int j = 0; j<instance.numJobs ; j++) {
+            for(int t = 0; t< instance.numTasks ; t++) {
+                intervals[instance.machine(j, t)][j] = ((long) startTime(j, t) << 32) | endTime(j, t);
+            }
+        }
+        return IntStream.range(0, instance.numMachines).parallel()
+                .mapToObj(m -> validateMachine(m, intervals[m]))
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
 
-                    if(!t1_first && !t2_first)
-                        return false;
-                }
+    /** First overlap between the tasks of machine m, given as (start time, end time) intervals, null if none. */
+    private Violation validateMachine(int m, long[] intervals) {
+        Arrays.sort(intervals);
+        for(int i = 1; i < intervals.length; i++) {
+            int previousEnd = (int) intervals[i-1];
+            int start = (int) (intervals[i] >>> 32);
+            if(previousEnd > start) {
+                Task first = taskWithInterval(m, intervals[i-1], null);
+                Task second = taskWithInterval(m, intervals[i], first);
+                return new Violation(second, first, m, "tasks " + first + " [" + startTime(first) + ", " + endTime(first)
+                        + ") and " + second + " [" + startTime(second) + ", " + endTime(second) + ") overlap on machine " + m);
             }
         }
+        return null;
+    }
 
-        return true;
+    /** A task of machine m, other than `excluded`, with the given (start time, end time) interval. */
+    private Task taskWithInterval(int m, long interval, Task excluded) {
+        for(int j = 0; j<instance.numJobs ; j++) {
+            Task task = new Task(j, instance.task_with_machine(j, m));
+            if((((long) startTime(task) << 32) | endTime(task)) == interval && !task.equals(excluded)) {
+                return task;
+            }
+        }
+        throw new IllegalStateException("No task of machine " + m + " in the interval");
     }
 
     /** Makespan of the solution.
@@ -94,7 +155,7 @@ public class Schedule extends Encoding {
 
     /** Returns true if the given sequence of task is a critical path of the schedule. */
     public boolean isCriticalPath(List<Task> path) {
-        if(startTime(path.get(0)) != 0) {
+        if(startTime(path.get(0)) != instance.release(path.get(0))) {
             return false;
         }
         if(endTime(path.get(path.size()-1)) != makespan()) {
@@ -124,10 +185,13 @@ public class Schedule extends Encoding {
         // task that finishes last
         LinkedList<Task> path = new LinkedList<>();
         path.add(0,ldd);
+        // tasks already on the path, indexed by job * numTasks + task
+        boolean[] onPath = new boolean[instance.numJobs * instance.numTasks];
+        onPath[ldd.job * instance.numTasks + ldd.task] = true;
 
         // keep adding tasks to the path until the first task in the path
-        // starts a time 0
-        while(startTime(path.getFirst()) != 0) {
+        // starts a time 0 (or at its release date)
+        while(startTime(path.getFirst()) != instance.release(path.getFirst())) {
             Task cur = path.getFirst();
             int machine = instance.machine(cur.job, cur.task);
 
@@ -145,15 +209,31 @@ public class Schedule extends Encoding {
             }
             if(latestPredecessor.isEmpty()) {
                 // no latest predecessor found yet, look among tasks executing on the same machine
-                latestPredecessor = IntStream.range(0, instance.numJobs)
-                        .mapToObj(j -> new Task(j, instance.task_with_machine(j, machine)))
-                        .filter(t -> endTime(t) == startTime(cur))
-                        .findFirst();
+                // (tasks of null duration, that sub-instances may contain, are only considered last and never twice)
+                Task zeroDuration = null;
+                for(int j = 0; j < instance.numJobs; j++) {
+                    int t = instance.task_with_machine(j, machine);
+                    if(endTime(j, t) != startTime(cur) || onPath[j * instance.numTasks + t]) {
+                        continue;
+                    }
+                    if(instance.duration(j, t) > 0) {
+                        latestPredecessor = Optional.of(new Task(j, t));
+                        break;
+                    }
+                    if(zeroDuration == null) {
+                        zeroDuration = new Task(j, t);
+                    }
+                }
+                if(latestPredecessor.isEmpty() && zeroDuration != null) {
+                    latestPredecessor = Optional.of(zeroDuration);
+                }
             }
             // at this point we should have identified a latest predecessor, either on the job or on the machine
             assert latestPredecessor.isPresent() && endTime(latestPredecessor.get()) == startTime(cur);
             // insert predecessor at the beginning of the path
-            path.add(0, latestPredecessor.get());
+            Task predecessor = latestPredecessor.get();
+            onPath[predecessor.job * instance.numTasks + predecessor.task] = true;
+            path.add(0, predecessor);
         }
         assert isCriticalPath(path);
         return path;
@@ -0,0 +1,285 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/** Max-min ant colony optimization.
+ *
+ * Each ant builds a ResourceOrder by list scheduling, as GreedySolver does: at each step, it picks one of the
+ * candidate tasks at random, with a probability proportional to the pheromone of the pair (last job sequenced on the
+ * machine of the task, job of the task) times the priority of the task raised to the power BETA. With an EST_*
+ * priority, the candidates are the tasks of the Giffler and Thompson conflict set (those of the machine of the task
+ * that can complete first, which can start before this completion), otherwise all the tasks that can be scheduled.
+ *
+ * The ants of a generation are built in parallel, each with its own generator seeded from the main one, so that the
+ * search only depends on the seed. The best ants of the generation may then be improved by a descent. Pheromone is
+ * updated once per generation, after all ants are built: evaporation, then deposit on the pairs of the best ant of the
+ * generation and of the best solution found, within the bounds of max-min ant systems.
+ *
+ * Pheromone is stored in a single float array, machine after machine, with one row of numJobs pairs for each
+ * previous job (and one for the first job of the machine).
+ */
+public class AntColonySolver implements Solver {
+
+    final GreedySolver.Priority priority;
+    /** Number of ants per generation. */
+    final int ants;
+    /** Fraction of the pheromone that evaporates at each generation. */
+    final double evaporation;
+    /** Number of best ants of each generation improved by a descent. */
+    final int descents;
+    final long seed;
+
+    /** Exponent of the priority in the choice of a task (the one of the pheromone being 1). */
+    static final int BETA = 2;
+
+    /** Creates a new ant colony solver.
+     *
+     * @param priority Priority guiding the ants, as in GreedySolver.
+     * @param ants Number of ants built in each generation.
+     * @param evaporation Fraction, between 0 and 1, of the pheromone that evaporates at each generation.
+     * @param descents Number of best ants of each generation improved by a descent (0 for none).
+     * @param seed Seed of the random number generator.
+     */
+    public AntColonySolver(GreedySolver.Priority priority, int ants, double evaporation, int descents, long seed) {
+        this.priority = priority;
+        this.ants = ants;
+        this.evaporation = evaporation;
+        this.descents = descents;
+        this.seed = seed;
+    }
+
+    /** Solution of an ant: the jobs of each machine in order (see ResourceOrder.saveJobs()) and its makespan. */
+    static final class Ant {
+        final int[] jobs;
+        int makespan;
+
+        Ant(int[] jobs, int makespan) {
+            this.jobs = jobs;
+            this.makespan = makespan;
+        }
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        Random generator = new Random(seed);
+        int n = instance.numJobs;
+        int lowerBound = LowerBounds.of(instance);
+        double[] heuristic = heuristic(instance);
+
+        // pheromone[(m * (n + 1) + previous + 1) * n + job]: job follows previous (-1 for none) on machine m
+        float[] pheromone = new float[instance.numMachines * (n + 1) * n];
+        Ant best = construct(instance, pheromone, heuristic, false, generator);
+        float max = (float) (1 / (evaporation * best.makespan));
+        float min = max / (2 * n);
+        Arrays.fill(pheromone, max);
+        Progress progress = Progress.start(this, instance, listener);
+        progress.improved(0, best.makespan, schedule(instance, best));
+        long generations = 0;
+
+        while(deadline - System.currentTimeMillis() > 1 && best.makespan > lowerBound) {
+            generations++;
+            long[] seeds = new long[ants];
+            for(int a = 0; a < ants; ++a) {
+                seeds[a] = generator.nextLong();
+            }
+            Ant[] generation = IntStream.range(0, ants).parallel()
+                    .mapToObj(a -> construct(instance, pheromone, heuristic, true, new Random(seeds[a])))
+                    .sorted(Comparator.comparingInt(ant -> ant.makespan))
+                    .toArray(Ant[]::new);
+
+            if(descents > 0) {
+                IntStream.range(0, Math.min(descents, ants)).parallel()
+                        .forEach(a -> descent(instance, generation[a], deadline));
+                Arrays.sort(generation, Comparator.comparingInt(ant -> ant.makespan));
+            }
+
+            if(generation[0].makespan < best.makespan) {
+                best = generation[0];
+                progress.improved(generations, best.makespan, schedule(instance, best));
+                max = (float) (1 / (evaporation * best.makespan));
+                min = max / (2 * n);
+            }
+
+            // batched update: evaporation, then deposit by the best ant of the generation and the best one so far
+            float keep = (float) (1 - evaporation);
+            for(int i = 0; i < pheromone.length; ++i) {
+                pheromone[i] *= keep;
+            }
+            deposit(instance, pheromone, generation[0]);
+            deposit(instance, pheromone, best);
+            for(int i = 0; i < pheromone.length; ++i) {
+                pheromone[i] = Math.max(min, Math.min(max, pheromone[i]));
+            }
+        }
+
+        ResourceOrder ro = new ResourceOrder(instance);
+        ro.restoreJobs(best.jobs);
+        return Result.withLowerBound(instance, ro.toSchedule(), Result.ExitCause.Timeout, lowerBound);
+    }
+
+    /** Supplier of the schedule of the given ant. */
+    private static Supplier<Optional<Schedule>> schedule(Instance instance, Ant ant) {
+        return () -> {
+            ResourceOrder ro = new ResourceOrder(instance);
+            ro.restoreJobs(ant.jobs);
+            return ro.toSchedule();
+        };
+    }
+
+    /** Priority of each task (job * numTasks + task) raised to the power BETA. */
+    double[] heuristic(Instance instance) {
+        double[] heuristic = new double[instance.numJobs * instance.numTasks];
+        for(int j = 0; j < instance.numJobs; ++j) {
+            int remaining = 0;
+            for(int t = instance.numTasks - 1; t >= 0; --t) {
+                int duration = instance.duration(j, t);
+                remaining += duration;
+                double value;
+                switch(priority) {
+                    case SPT: case EST_SPT:   value = 1.0 / (1 + duration); break;
+                    case LPT: case EST_LPT:   value = 1 + duration; break;
+                    case SRPT: case EST_SRPT: value = 1.0 / (1 + remaining); break;
+                    default:                  value = 1 + remaining; break;
+                }
+                heuristic[j * instance.numTasks + t] = Math.pow(value, BETA);
+            }
+        }
+        return heuristic;
+    }
+
+    /** Builds the solution of one ant.
+     * @param random If false, the task with the best priority is always chosen, regardless of the pheromone. */
+    Ant construct(Instance instance, float[] pheromone, double[] heuristic, boolean random, Random generator) {
+        int n = instance.numJobs;
+        int numTasks = instance.numTasks;
+        boolean conflictSet = priority.name().startsWith("EST");
+
+        int[] nextTask = new int[n];
+        int[] jobReady = new int[n];
+        int[] machineReady = new int[instance.numMachines];
+        int[] lastJob = new int[instance.numMachines];
+        int[] scheduled = new int[instance.numMachines];
+        Arrays.fill(lastJob, -1);
+        int[] jobs = new int[instance.numMachines * n];
+        int[] candidates = new int[n];
+        double[] weights = new double[n];
+        int makespan = 0;
+
+        for(int step = 0; step < n * numTasks; ++step) {
+            int numCandidates = 0;
+            if(conflictSet) {
+                // machine of the task that can complete first
+                int firstEnd = Integer.MAX_VALUE;
+                int machine = -1;
+                for(int j = 0; j < n; ++j) {
+                    if(nextTask[j] < numTasks) {
+                        int end = start(instance, j, nextTask[j], jobReady, machineReady) + instance.duration(j, nextTask[j]);
+                        if(end < firstEnd) {
+                            firstEnd = end;
+                            machine = instance.machine(j, nextTask[j]);
+                        }
+                    }
+                }
+                for(int j = 0; j < n; ++j) {
+                    if(nextTask[j] < numTasks && instance.machine(j, nextTask[j]) == machine
+                            && start(instance, j, nextTask[j], jobReady, machineReady) < firstEnd) {
+                        candidates[numCandidates++] = j;
+                    }
+                }
+                if(numCandidates == 0) {
+                    // only tasks of null duration complete first
+                    for(int j = 0; j < n; ++j) {
+                        if(nextTask[j] < numTasks && instance.machine(j, nextTask[j]) == machine
+                                && start(instance, j, nextTask[j], jobReady, machineReady) + instance.duration(j, nextTask[j]) == firstEnd) {
+                            candidates[numCandidates++] = j;
+                        }
+                    }
+                }
+            } else {
+                for(int j = 0; j < n; ++j) {
+                    if(nextTask[j] < numTasks) {
+                        candidates[numCandidates++] = j;
+                    }
+                }
+            }
+
+            int chosen = candidates[0];
+            if(random) {
+                double total = 0;
+                for(int i = 0; i < numCandidates; ++i) {
+                    int j = candidates[i];
+                    int m = instance.machine(j, nextTask[j]);
+                    weights[i] = pheromone[(m * (n + 1) + lastJob[m] + 1) * n + j] * heuristic[j * numTasks + nextTask[j]];
+                    total += weights[i];
+                }
+                double x = generator.nextDouble() * total;
+                for(int i = 0; i < numCandidates; ++i) {
+                    chosen = candidates[i];
+                    x -= weights[i];
+                    if(x < 0) {
+                        break;
+                    }
+                }
+            } else {
+                for(int i = 1; i < numCandidates; ++i) {
+                    int j = candidates[i];
+                    if(heuristic[j * numTasks + nextTask[j]] > heuristic[chosen * numTasks + nextTask[chosen]]) {
+                        chosen = j;
+                    }
+                }
+            }
+
+            int t = nextTask[chosen]++;
+            int m = instance.machine(chosen, t);
+            int end = start(instance, chosen, t, jobReady, machineReady) + instance.duration(chosen, t);
+            jobReady[chosen] = end;
+            machineReady[m] = end;
+            lastJob[m] = chosen;
+            jobs[m * n + scheduled[m]++] = chosen;
+            makespan = Math.max(makespan, end);
+        }
+        return new Ant(jobs, makespan);
+    }
+
+    /** Earliest start of a task given the ready times of the jobs and machines. */
+    private static int start(Instance instance, int job, int task, int[] jobReady, int[] machineReady) {
+        return Math.max(Math.max(jobReady[job], machineReady[instance.machine(job, task)]), instance.release(job, task));
+    }
+
+    /** Deposits pheromone on the pairs of consecutive jobs of the machines of the given ant. */
+    static void deposit(Instance instance, float[] pheromone, Ant ant) {
+        int n = instance.numJobs;
+        float amount = 1f / ant.makespan;
+        for(int m = 0; m < instance.numMachines; ++m) {
+            int previous = -1;
+            for(int i = 0; i < n; ++i) {
+                int job = ant.jobs[m * n + i];
+                pheromone[(m * (n + 1) + previous + 1) * n + job] += amount;
+                previous = job;
+            }
+        }
+    }
+
+    /** Improves the solution of an ant in place with a descent in the Nowicki and Smutnicki neighborhood. */
+    static void descent(Instance instance, Ant ant, long deadline) {
+        ResourceOrder ro = new ResourceOrder(instance);
+        ro.restoreJobs(ant.jobs);
+        Optional<Schedule> start = ro.toSchedule();
+        Solver descent = new DescentSolver(new Nowicki(), (i, d, l) -> new Result(i, start, Result.ExitCause.Blocked));
+        Schedule improved = descent.solve(instance, deadline).schedule.get();
+        new ResourceOrder(improved).saveJobs(ant.jobs);
+        ant.makespan = improved.makespan();
+    }
+}
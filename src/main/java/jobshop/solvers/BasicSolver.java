@@ -1,15 +1,19 @@
 package jobshop.solvers;
 
 import jobshop.Instance;
+import jobshop.LowerBounds;
 import jobshop.Result;
 import jobshop.encodings.JobNumbers;
+import jobshop.encodings.Schedule;
+
+import java.util.Optional;
 
 /**
  * A very naïve solver that first schedules all first tasks, then all second tasks, ...
  **/
 public class BasicSolver implements Solver {
     @Override
-    public Result solve(Instance instance, long deadline) {
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
 
         JobNumbers sol = new JobNumbers(instance);
         for(int t = 0 ; t<instance.numTasks ; t++) {
@@ -18,6 +22,8 @@ public class BasicSolver implements Solver {
             }
         }
 
-        return new Result(instance, sol.toSchedule(), Result.ExitCause.Blocked);
+        Optional<Schedule> schedule = sol.toSchedule();
+        Progress.start(this, instance, listener).improved(0, schedule);
+        return Result.withLowerBound(instance, schedule, Result.ExitCause.Blocked, LowerBounds.of(instance));
     }
 }
@@ -0,0 +1,76 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+
+import java.util.Optional;
+
+/** Solves an instance and its reversed instance (see Instance.reversed()) concurrently and keeps the best solution.
+ *
+ * Many instances are much easier to solve in one direction than in the other, and which one is rarely known in
+ * advance. The solution found on the reversed instance is converted back with ResourceOrder.reversed().
+ *
+ * The two searches run on two threads of their own until the deadline, so that each direction gets the whole time
+ * even when the solvers themselves are sequential. As solvers may keep state between calls, each direction has its
+ * own solver. The improvements found in either direction are reported as improvements of this solver.
+ */
+public class BidirectionalSolver implements Solver {
+
+    final Solver forwardSolver;
+    final Solver backwardSolver;
+
+    /** Creates a new bidirectional solver.
+     *
+     * @param forwardSolver Solver used on the instance itself.
+     * @param backwardSolver Solver used on the reversed instance, usually of the same kind as forwardSolver.
+     */
+    public BidirectionalSolver(Solver forwardSolver, Solver backwardSolver) {
+        this.forwardSolver = forwardSolver;
+        this.backwardSolver = backwardSolver;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        Progress progress = Progress.start(this, instance, listener);
+        SolverListener forwardListener = incumbent ->
+                progress.improved(incumbent.iteration, incumbent.makespan, incumbent::schedule);
+        SolverListener backwardListener = incumbent -> progress.improved(incumbent.iteration, incumbent.makespan,
+                () -> incumbent.schedule().flatMap(s -> new ResourceOrder(s).reversed().toSchedule()));
+
+        Instance reversed = instance.reversed();
+        Result[] backward = new Result[1];
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(() -> {
+            try {
+                backward[0] = backwardSolver.solve(reversed, deadline, backwardListener);
+            } catch (Throwable t) {
+                failure[0] = t;
+            }
+        }, "backward " + instance.name);
+        thread.start();
+        Result forward;
+        try {
+            forward = forwardSolver.solve(instance, deadline, forwardListener);
+            thread.join();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        if(failure[0] != null) {
+            // join() makes the failure of the backward search visible here: report it rather than its consequences
+            if(failure[0] instanceof Error) {
+                throw (Error) failure[0];
+            }
+            throw new RuntimeException("Backward search failed on " + instance.name, failure[0]);
+        }
+
+        Optional<Schedule> converted = backward[0].schedule.flatMap(s -> new ResourceOrder(s).reversed().toSchedule());
+        int lowerBound = Math.max(forward.lowerBound, backward[0].lowerBound);
+        boolean backwardIsBetter = converted.isPresent()
+                && (forward.schedule.isEmpty() || converted.get().makespan() < forward.schedule.get().makespan());
+        return backwardIsBetter
+                ? Result.withLowerBound(instance, converted, backward[0].cause, lowerBound)
+                : Result.withLowerBound(instance, forward.schedule, forward.cause, lowerBound);
+    }
+}
@@ -0,0 +1,767 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Exact branch and bound solver on the disjunctive graph, in the spirit of Brucker, Jurisch and Sievers.
+ *
+ * A node of the search tree is a set of fixed disjunctive arcs (relative orders of two jobs on a machine).
+ * For each node:
+ *  - heads and tails of all tasks are computed by longest paths in the graph of the fixed arcs,
+ *  - arcs that must hold in any solution better than the incumbent are fixed (immediate selection),
+ *  - the node is pruned if its lower bound (longest path or one-machine preemptive bound) reaches the incumbent,
+ *  - a solution respecting the fixed arcs is built by a Giffler-Thompson heuristic and may improve the incumbent,
+ *  - children are created from the blocks of the critical path of this solution: in each child, one task of a block
+ *    is moved before all the other tasks of the block or after them.
+ *
+ * Subtrees are explored in parallel by a fork/join pool (work stealing). The initial upper bound is given by another
+ * solver. While the tree is explored, a taboo search keeps improving the upper bound on a thread of its own: it is
+ * restarted every IMPROVEMENT_TIME milliseconds from the best solution, after a random walk on its critical path.
+ * If the search completes, the solution is proved optimal. Otherwise, the result holds the best lower bound proved on
+ * the unexplored part of the tree.
+ */
+public class BranchAndBoundSolver implements Solver {
+
+    final Solver baseSolver;
+
+    /** Fraction of the available time given to the base solver. */
+    final double baseSolverShare;
+
+    /** Duration of each run of the taboo search that improves the upper bound, in milliseconds. */
+    static final long IMPROVEMENT_TIME = 100;
+    /** Number of random swaps applied to the best solution before each run of the taboo search. */
+    static final int KICK = 4;
+
+    /** Creates a new branch and bound solver.
+     *
+     * @param baseSolver A solver to provide the initial upper bound.
+     * @param baseSolverShare Fraction of the time until the deadline that is given to the base solver.
+     */
+    public BranchAndBoundSolver(Solver baseSolver, double baseSolverShare) {
+        this.baseSolver = baseSolver;
+        this.baseSolverShare = baseSolverShare;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        long now = System.currentTimeMillis();
+        long baseDeadline = now + (long) ((deadline - now) * baseSolverShare);
+        Schedule initial = baseSolver.solve(instance, baseDeadline).schedule.get();
+        int lowerBound = LowerBounds.of(instance);
+        Progress progress = Progress.start(this, instance, listener);
+        progress.improved(0, Optional.of(initial));
+        if(initial.makespan() <= lowerBound) {
+            return new Result(instance, Optional.of(initial), Result.ExitCause.ProvedOptimal, lowerBound);
+        }
+
+        Search search = new Search(instance, initial, deadline, Long.MAX_VALUE, true, progress);
+        AtomicBoolean finished = new AtomicBoolean(false);
+        Thread improver = new Thread(() -> improve(search, finished), "bnb upper bound " + instance.name);
+        improver.start();
+        boolean complete;
+        try {
+            complete = search.run(new boolean[instance.numMachines * instance.numJobs * instance.numJobs]);
+        } finally {
+            finished.set(true);
+        }
+        try {
+            improver.join();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+
+        Optional<Schedule> best = Optional.of(search.bestSchedule());
+        if(complete) {
+            return new Result(instance, best, Result.ExitCause.ProvedOptimal, search.upperBound());
+        } else {
+            return Result.withLowerBound(instance, best, Result.ExitCause.Timeout, Math.max(lowerBound, search.lowerBound()));
+        }
+    }
+
+    /** Improves the upper bound of the given search until it is finished (or past its deadline): short runs of taboo
+     * search, each one from the best solution found so far after a random walk on its critical path. */
+    private static void improve(Search search, AtomicBoolean finished) {
+        Instance instance = search.instance;
+        Nowicki nowicki = new Nowicki();
+        Random generator = new Random(0);
+        int lowerBound = LowerBounds.of(instance);
+        boolean first = true;
+        while(!finished.get() && search.deadline - System.currentTimeMillis() > 1 && search.upperBound() > lowerBound) {
+            ResourceOrder start = new ResourceOrder(search.bestSchedule());
+            if(!first) {
+                nowicki.randomWalk(start, KICK, generator);
+            }
+            first = false;
+            Optional<Schedule> from = start.toSchedule();
+            Solver taboo = new TSABSolver(nowicki, (i, d, l) -> new Result(i, from, Result.ExitCause.Blocked), 500, 8, 100);
+            long end = Math.min(search.deadline, System.currentTimeMillis() + IMPROVEMENT_TIME);
+            taboo.solve(instance, end).schedule.ifPresent(search::improve);
+        }
+    }
+
+    /** Exploration of the tree below a set of fixed arcs, that may be limited in time and number of nodes.
+     *
+     * Tasks are identified by job * numTasks + task. The fixed arcs are stored in an array of
+     * numMachines * numJobs * numJobs booleans: fixed[(m * numJobs + a) * numJobs + b] is true if job a must precede
+     * job b on machine m.
+     */
+    static final class Search {
+        final Instance instance;
+        final long deadline;
+        final long nodeLimit;
+        final boolean parallel;
+
+        final int numJobs;
+        final int numMachines;
+        final int numTasks;
+        final int size;
+        /** Duration and machine of each task. */
+        final int[] duration;
+        final int[] machine;
+        /** For each machine and job, the task of the job executing on the machine. */
+        final int[] taskOnMachine;
+
+        final AtomicInteger upperBound;
+        private int[] bestStarts;
+        final AtomicLong nodes = new AtomicLong();
+        /** Progress to which the improvements of the incumbent are reported, null if they are not. */
+        final Progress progress;
+        final AtomicBoolean aborted = new AtomicBoolean(false);
+        /** Smallest lower bound of the nodes that were left unexplored. */
+        final AtomicInteger openBound = new AtomicInteger(Integer.MAX_VALUE);
+        private int rootBound = 0;
+
+        /** Prepares the search.
+         *
+         * @param instance Instance to solve
+         * @param incumbent Initial solution, whose makespan is the initial upper bound.
+         * @param deadline Time (in milliseconds) at which the search is aborted.
+         * @param nodeLimit Maximum number of nodes to explore before aborting.
+         * @param parallel If true, subtrees are explored in parallel.
+         * @param progress Progress to which the improvements of the incumbent are reported, or null.
+         */
+        Search(Instance instance, Schedule incumbent, long deadline, long nodeLimit, boolean parallel, Progress progress) {
+            this.instance = instance;
+            this.deadline = deadline;
+            this.nodeLimit = nodeLimit;
+            this.parallel = parallel;
+            this.progress = progress;
+            this.numJobs = instance.numJobs;
+            this.numMachines = instance.numMachines;
+            this.numTasks = instance.numTasks;
+            this.size = numJobs * numTasks;
+            this.duration = new int[size];
+            this.machine = new int[size];
+            this.taskOnMachine = new int[numMachines * numJobs];
+            for(int j = 0; j < numJobs; ++j) {
+                for(int t = 0; t < numTasks; ++t) {
+                    duration[j * numTasks + t] = instance.duration(j, t);
+                    machine[j * numTasks + t] = instance.machine(j, t);
+                    taskOnMachine[instance.machine(j, t) * numJobs + j] = t;
+                }
+            }
+
+            this.bestStarts = new int[size];
+            for(int j = 0; j < numJobs; ++j) {
+                for(int t = 0; t < numTasks; ++t) {
+                    bestStarts[j * numTasks + t] = incumbent.startTime(j, t);
+                }
+            }
+            this.upperBound = new AtomicInteger(incumbent.makespan());
+        }
+
+        /** Explores the tree whose root has the given fixed arcs.
+         * @return true if the tree was completely explored, false if the search was aborted. */
+        boolean run(boolean[] fixed) {
+            int[] releases = new int[size];
+            for(int t = 0; t < size; ++t) {
+                releases[t] = instance.release(t / numTasks, t % numTasks);
+            }
+            Node root = new Node(fixed, releases, new int[size]);
+            rootBound = root.bound;
+            if(parallel) {
+                ForkJoinPool.commonPool().invoke(root);
+            } else {
+                root.compute();
+            }
+            return !aborted.get();
+        }
+
+        int upperBound() {
+            return upperBound.get();
+        }
+
+        /** Lower bound on the makespan of any solution respecting the fixed arcs of the root. */
+        int lowerBound() {
+            int bound = aborted.get() ? Math.min(upperBound.get(), openBound.get()) : upperBound.get();
+            return Math.max(rootBound == Integer.MAX_VALUE ? 0 : Math.min(rootBound, upperBound.get()), bound);
+        }
+
+        /** Best solution found so far. */
+        synchronized Schedule bestSchedule() {
+            Schedule schedule = new Schedule(instance);
+            for(int j = 0; j < numJobs; ++j) {
+                for(int t = 0; t < numTasks; ++t) {
+                    schedule.setStartTime(j, t, bestStarts[j * numTasks + t]);
+                }
+            }
+            return schedule;
+        }
+
+        /** Offers a solution found by another solver as a new incumbent. */
+        void improve(Schedule schedule) {
+            int[] starts = new int[size];
+            for(int j = 0; j < numJobs; ++j) {
+                for(int t = 0; t < numTasks; ++t) {
+                    starts[j * numTasks + t] = schedule.startTime(j, t);
+                }
+            }
+            improve(schedule.makespan(), starts);
+        }
+
+        private synchronized void improve(int makespan, int[] starts) {
+            if(makespan < upperBound.get()) {
+                bestStarts = starts.clone();
+                upperBound.set(makespan);
+                if(progress != null) {
+                    progress.improved(nodes.get(), makespan, () -> Optional.of(bestSchedule()));
+                }
+            }
+        }
+
+        private void leaveOpen(int bound) {
+            openBound.accumulateAndGet(bound, Math::min);
+        }
+
+        private int task(int m, int job) {
+            return job * numTasks + taskOnMachine[m * numJobs + job];
+        }
+
+        private int arc(int m, int before, int after) {
+            return (m * numJobs + before) * numJobs + after;
+        }
+
+        /** A node of the search tree. Its lower bound is computed on creation. */
+        final class Node extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            final boolean[] fixed;
+            /** Adjusted heads and tails deduced by the selection on sets of jobs, inherited by the children. */
+            final int[] minHeads;
+            final int[] minTails;
+            final int[] heads = new int[size];
+            final int[] tails = new int[size];
+            /** Lower bound of the node, Integer.MAX_VALUE if it cannot lead to an improving solution. */
+            int bound;
+            /** Upper bound at the time the node was evaluated. */
+            int evaluatedWith;
+
+            Node(boolean[] fixed, int[] minHeads, int[] minTails) {
+                this.fixed = fixed;
+                this.minHeads = minHeads;
+                this.minTails = minTails;
+                this.evaluatedWith = upperBound.get();
+                this.bound = evaluate();
+            }
+
+            @Override
+            protected void compute() {
+                if(aborted.get() || System.currentTimeMillis() >= deadline || nodes.incrementAndGet() > nodeLimit) {
+                    aborted.set(true);
+                    leaveOpen(bound);
+                    return;
+                }
+                if(bound >= upperBound.get()) {
+                    return;
+                }
+                if(evaluatedWith != upperBound.get()) {
+                    // the upper bound decreased since the creation of the node: more arcs may be selected
+                    evaluatedWith = upperBound.get();
+                    bound = evaluate();
+                    if(bound >= upperBound.get()) {
+                        return;
+                    }
+                }
+
+                List<Node> children = branch(buildSolution());
+                children.sort((a, b) -> Integer.compare(a.bound, b.bound));
+                if(parallel && getSurplusQueuedTaskCount() <= 2) {
+                    invokeAll(children);
+                } else {
+                    for(Node child : children) {
+                        child.compute();
+                    }
+                }
+            }
+
+            /** Computes heads and tails and fixes arcs by immediate selection until a fixpoint is reached, or until the
+             * deadline: the bound is then weaker, but still valid.
+             * @return a lower bound of the node, Integer.MAX_VALUE if the fixed arcs are contradictory. */
+            int evaluate() {
+                int[] r = new int[numJobs];
+                int[] p = new int[numJobs];
+                int[] q = new int[numJobs];
+                while(true) {
+                    if(!computeHeadsAndTails()) {
+                        return Integer.MAX_VALUE;
+                    }
+                    if(System.currentTimeMillis() >= deadline) {
+                        break;
+                    }
+                    int ub = upperBound.get();
+                    int selected = 0;
+                    for(int m = 0; m < numMachines; ++m) {
+                        load(m, r, p, q);
+                        int s = selectPairs(m, r, p, q, ub);
+                        if(s < 0) {
+                            return Integer.MAX_VALUE;
+                        }
+                        selected += s;
+                    }
+                    // the more expensive selection on sets of jobs is only made once pairs are at a fixpoint
+                    for(int m = 0; m < numMachines && selected == 0 && System.currentTimeMillis() < deadline; ++m) {
+                        load(m, r, p, q);
+                        int s = selectSets(m, r, p, q, ub);
+                        if(s < 0) {
+                            return Integer.MAX_VALUE;
+                        }
+                        selected += s;
+                    }
+                    if(selected == 0) {
+                        break;
+                    }
+                }
+
+                int bound = 0;
+                for(int t = 0; t < size; ++t) {
+                    bound = Math.max(bound, heads[t] + duration[t] + tails[t]);
+                }
+                for(int m = 0; m < numMachines; ++m) {
+                    load(m, r, p, q);
+                    bound = Math.max(bound, LowerBounds.jacksonPreemptive(r, p, q));
+                }
+                return bound;
+            }
+
+            /** Returns true if the position of job c on machine m relatively to all other jobs is fixed. */
+            private boolean sequenced(int m, int c) {
+                for(int j = 0; j < numJobs; ++j) {
+                    if(j != c && !fixed[arc(m, j, c)] && !fixed[arc(m, c, j)]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            /** Heads, durations and tails of the tasks executing on machine m, indexed by job. */
+            private void load(int m, int[] r, int[] p, int[] q) {
+                for(int j = 0; j < numJobs; ++j) {
+                    int t = task(m, j);
+                    r[j] = heads[t];
+                    p[j] = duration[t];
+                    q[j] = tails[t];
+                }
+            }
+
+            /** Immediate selection on pairs of jobs of machine m: `a` must precede `b` in any solution better than
+             * `ub` if r_b + p_b + p_a + q_a >= ub.
+             *
+             * @return the number of arcs fixed, -1 if some job can be neither before nor after another one.
+             */
+            private int selectPairs(int m, int[] r, int[] p, int[] q, int ub) {
+                int selected = 0;
+                for(int a = 0; a < numJobs; ++a) {
+                    for(int b = a + 1; b < numJobs; ++b) {
+                        if(fixed[arc(m, a, b)] || fixed[arc(m, b, a)]) {
+                            continue;
+                        }
+                        // can `a` be processed before `b` (resp. `b` before `a`) in an improving solution ?
+                        boolean aFirst = r[a] + p[a] + p[b] + q[b] < ub;
+                        boolean bFirst = r[b] + p[b] + p[a] + q[a] < ub;
+                        if(!aFirst && !bFirst) {
+                            return -1;
+                        } else if(!bFirst) {
+                            fixed[arc(m, a, b)] = true;
+                            selected++;
+                        } else if(!aFirst) {
+                            fixed[arc(m, b, a)] = true;
+                            selected++;
+                        }
+                    }
+                }
+                return selected;
+            }
+
+            /** Immediate selection on sets of jobs of machine m (ascendant and descendant sets of Carlier and Pinson).
+             *
+             * A job c must be processed after all jobs of a set J if processing it before one of them cannot lead to
+             * an improving solution: min(r_c, min r_J) + p_c + p(J) + min q_J >= ub (and symmetrically for c before J).
+             * The sets J = { j | r_j >= r_a } are considered for every job a, grown by decreasing tails.
+             * The head of c is then raised to min r_J + p(J) (resp. its tail to min q_J + p(J)).
+             *
+             * @return the number of arcs fixed and heads or tails adjusted, -1 if the node cannot lead to an improving
+             * solution.
+             */
+            private int selectSets(int m, int[] r, int[] p, int[] q, int ub) {
+                int selected = 0;
+
+                // jobs by decreasing tails
+                int[] byTail = new int[numJobs];
+                for(int j = 0; j < numJobs; ++j) {
+                    int k = j;
+                    while(k > 0 && q[byTail[k - 1]] < q[j]) {
+                        byTail[k] = byTail[k - 1];
+                        k--;
+                    }
+                    byTail[k] = j;
+                }
+
+                boolean[] mustPrecede = new boolean[numJobs];
+                boolean[] mustFollow = new boolean[numJobs];
+                for(int c = 0; c < numJobs; ++c) {
+                    if(sequenced(m, c)) {
+                        continue;
+                    }
+                    Arrays.fill(mustPrecede, false);
+                    Arrays.fill(mustFollow, false);
+                    for(int a = 0; a < numJobs; ++a) {
+                        if(a == c) {
+                            continue;
+                        }
+                        // grow J = { j | r_j >= r_a } by decreasing tails, remembering the largest sets that must be
+                        // processed before (resp. after) c
+                        int sum = 0;
+                        int minHead = Integer.MAX_VALUE;
+                        int lastBefore = -1;
+                        int lastAfter = -1;
+                        for(int i = 0; i < numJobs; ++i) {
+                            int j = byTail[i];
+                            if(j == c || r[j] < r[a]) {
+                                continue;
+                            }
+                            sum += p[j];
+                            minHead = Math.min(minHead, r[j]);
+                            if(Math.min(r[c], minHead) + sum + p[c] + q[j] >= ub) {
+                                lastBefore = i;
+                            }
+                            if(minHead + sum + p[c] + Math.min(q[c], q[j]) >= ub) {
+                                lastAfter = i;
+                            }
+                        }
+                        // c cannot start before all jobs of a set it follows are completed (resp. end less than
+                        // their processing time before the end of a set it precedes)
+                        int head = r[c];
+                        int tail = q[c];
+                        sum = 0;
+                        minHead = Integer.MAX_VALUE;
+                        for(int i = 0; i <= Math.max(lastBefore, lastAfter); ++i) {
+                            int j = byTail[i];
+                            if(j == c || r[j] < r[a]) {
+                                continue;
+                            }
+                            sum += p[j];
+                            minHead = Math.min(minHead, r[j]);
+                            if(i <= lastBefore) {
+                                mustPrecede[j] = true;
+                                head = Math.max(head, minHead + sum);
+                            }
+                            if(i <= lastAfter) {
+                                mustFollow[j] = true;
+                                tail = Math.max(tail, q[j] + sum);
+                            }
+                        }
+                        if(head > r[c] || tail > q[c]) {
+                            if(head + p[c] + tail >= ub) {
+                                return -1;
+                            }
+                            int t = task(m, c);
+                            r[c] = minHeads[t] = head;
+                            q[c] = minTails[t] = tail;
+                            selected++;
+                        }
+                    }
+                    for(int j = 0; j < numJobs; ++j) {
+                        if(mustPrecede[j] && mustFollow[j]) {
+                            return -1;
+                        }
+                        int before = mustPrecede[j] ? j : c;
+                        int after = mustPrecede[j] ? c : j;
+                        if((mustPrecede[j] || mustFollow[j]) && !fixed[arc(m, before, after)]) {
+                            if(fixed[arc(m, after, before)]) {
+                                return -1;
+                            }
+                            fixed[arc(m, before, after)] = true;
+                            selected++;
+                        }
+                    }
+                }
+                return selected;
+            }
+
+            /** Longest paths from the start (heads) and to the end (tails, excluding the task itself) of each task.
+             * @return false if the fixed arcs contain a cycle. */
+            private boolean computeHeadsAndTails() {
+                int[] predecessors = new int[size];
+                for(int m = 0; m < numMachines; ++m) {
+                    for(int a = 0; a < numJobs; ++a) {
+                        for(int b = 0; b < numJobs; ++b) {
+                            if(fixed[arc(m, a, b)]) {
+                                predecessors[task(m, b)]++;
+                            }
+                        }
+                    }
+                }
+                int[] order = new int[size];
+                int head = 0;
+                int tail = 0;
+                for(int t = 0; t < size; ++t) {
+                    if(t % numTasks != 0) {
+                        predecessors[t]++;
+                    }
+                    if(predecessors[t] == 0) {
+                        order[tail++] = t;
+                    }
+                }
+                System.arraycopy(minHeads, 0, heads, 0, size);
+                while(head < tail) {
+                    int t = order[head++];
+                    int end = heads[t] + duration[t];
+                    if((t + 1) % numTasks != 0) {
+                        heads[t + 1] = Math.max(heads[t + 1], end);
+                        if(--predecessors[t + 1] == 0) {
+                            order[tail++] = t + 1;
+                        }
+                    }
+                    int m = machine[t];
+                    int job = t / numTasks;
+                    for(int b = 0; b < numJobs; ++b) {
+                        if(fixed[arc(m, job, b)]) {
+                            int s = task(m, b);
+                            heads[s] = Math.max(heads[s], end);
+                            if(--predecessors[s] == 0) {
+                                order[tail++] = s;
+                            }
+                        }
+                    }
+                }
+                if(tail < size) {
+                    return false;
+                }
+
+                System.arraycopy(minTails, 0, tails, 0, size);
+                for(int i = size - 1; i >= 0; --i) {
+                    int t = order[i];
+                    if((t + 1) % numTasks != 0) {
+                        tails[t] = Math.max(tails[t], duration[t + 1] + tails[t + 1]);
+                    }
+                    int m = machine[t];
+                    int job = t / numTasks;
+                    for(int b = 0; b < numJobs; ++b) {
+                        if(fixed[arc(m, job, b)]) {
+                            int s = task(m, b);
+                            tails[t] = Math.max(tails[t], duration[s] + tails[s]);
+                        }
+                    }
+                }
+                return true;
+            }
+
+            /** Builds a solution respecting the fixed arcs with the Giffler-Thompson algorithm, where conflicts are
+             * resolved in favor of the task with the longest tail. The solution improves the incumbent if possible.
+             *
+             * @return for each task, the task that precedes it on the critical path (-1 for the first one), preceded by
+             *         the last task of the critical path at index `size`.
+             */
+            private int[] buildSolution() {
+                int[] fixedPredecessors = new int[size];
+                for(int m = 0; m < numMachines; ++m) {
+                    for(int a = 0; a < numJobs; ++a) {
+                        for(int b = 0; b < numJobs; ++b) {
+                            if(fixed[arc(m, a, b)]) {
+                                fixedPredecessors[task(m, b)]++;
+                            }
+                        }
+                    }
+                }
+                int[] starts = new int[size];
+                int[] nextTask = new int[numJobs];
+                int[] jobReady = new int[numJobs];
+                int[] machineReady = new int[numMachines];
+                int[] lastOnMachine = new int[numMachines];
+                Arrays.fill(lastOnMachine, -1);
+                int[] previousOnMachine = new int[size];
+
+                for(int step = 0; step < size; ++step) {
+                    // task with the earliest completion time among the schedulable ones
+                    int earliest = -1;
+                    int earliestEnd = Integer.MAX_VALUE;
+                    for(int j = 0; j < numJobs; ++j) {
+                        int t = j * numTasks + nextTask[j];
+                        if(nextTask[j] < numTasks && fixedPredecessors[t] == 0) {
+                            int end = start(t, jobReady, machineReady) + duration[t];
+                            if(end < earliestEnd) {
+                                earliestEnd = end;
+                                earliest = t;
+                            }
+                        }
+                    }
+                    // among the tasks of the same machine that could start before, pick the one with the longest tail
+                    int m = machine[earliest];
+                    int chosen = earliest;
+                    for(int j = 0; j < numJobs; ++j) {
+                        int t = j * numTasks + nextTask[j];
+                        if(nextTask[j] < numTasks && fixedPredecessors[t] == 0 && machine[t] == m
+                                && start(t, jobReady, machineReady) < earliestEnd && tails[t] > tails[chosen]) {
+                            chosen = t;
+                        }
+                    }
+
+                    int job = chosen / numTasks;
+                    starts[chosen] = start(chosen, jobReady, machineReady);
+                    jobReady[job] = starts[chosen] + duration[chosen];
+                    machineReady[m] = jobReady[job];
+                    previousOnMachine[chosen] = lastOnMachine[m];
+                    lastOnMachine[m] = chosen;
+                    nextTask[job]++;
+                    for(int b = 0; b < numJobs; ++b) {
+                        if(fixed[arc(m, job, b)]) {
+                            fixedPredecessors[task(m, b)]--;
+                        }
+                    }
+                }
+
+                int makespan = 0;
+                int last = -1;
+                for(int j = 0; j < numJobs; ++j) {
+                    if(jobReady[j] > makespan) {
+                        makespan = jobReady[j];
+                        last = j * numTasks + numTasks - 1;
+                    }
+                }
+                if(makespan < upperBound.get()) {
+                    improve(makespan, starts);
+                }
+
+                // critical path: each task starts when either its job predecessor or its machine predecessor ends,
+                // or at its release date
+                int[] critical = new int[size + 1];
+                critical[size] = last;
+                int t = last;
+                while(true) {
+                    int previous;
+                    int onMachine = previousOnMachine[t];
+                    if(onMachine >= 0 && starts[onMachine] + duration[onMachine] == starts[t]) {
+                        previous = onMachine;
+                    } else if(t % numTasks != 0 && starts[t - 1] + duration[t - 1] == starts[t]) {
+                        previous = t - 1;
+                    } else {
+                        break;
+                    }
+                    critical[t] = previous;
+                    t = previous;
+                }
+                critical[t] = -1;
+                return critical;
+            }
+
+            /** Earliest start of task t given the completion times of the jobs and machines. */
+            private int start(int t, int[] jobReady, int[] machineReady) {
+                return Math.max(Math.max(jobReady[t / numTasks], machineReady[machine[t]]),
+                        instance.release(t / numTasks, t % numTasks));
+            }
+
+            /** Children of the node, built from the blocks of the given critical path. Children that cannot lead
+             * to an improving solution are discarded. */
+            private List<Node> branch(int[] critical) {
+                // rebuild the critical path in order, and split it in blocks of tasks on the same machine
+                ArrayList<int[]> blocks = new ArrayList<>();
+                ArrayList<Integer> blockMachines = new ArrayList<>();
+                int[] path = new int[size];
+                int length = 0;
+                for(int t = critical[size]; t >= 0; t = critical[t]) {
+                    path[length++] = t;
+                }
+                int end = length - 1;
+                for(int i = length - 1; i >= 0; --i) {
+                    if(i == 0 || machine[path[i - 1]] != machine[path[i]]) {
+                        if(end > i) {
+                            int[] block = new int[end - i + 1];
+                            for(int k = 0; k < block.length; ++k) {
+                                block[k] = path[end - k] / numTasks;
+                            }
+                            blocks.add(block);
+                            blockMachines.add(machine[path[i]]);
+                        }
+                        end = i - 1;
+                    }
+                }
+
+                ArrayList<Node> children = new ArrayList<>();
+                boolean[] previousBlocks = fixed.clone();
+                for(int i = 0; i < blocks.size(); ++i) {
+                    int[] block = blocks.get(i);
+                    int m = blockMachines.get(i);
+                    // one task moved before all others
+                    for(int k = 1; k < block.length; ++k) {
+                        boolean[] child = previousBlocks.clone();
+                        if(fixAll(child, m, block, block[k], true)) {
+                            addChild(children, child);
+                        }
+                    }
+                    // one task moved after all others
+                    for(int k = 0; k < block.length - 1; ++k) {
+                        boolean[] child = previousBlocks.clone();
+                        if(fixAll(child, m, block, block[k], false)) {
+                            addChild(children, child);
+                        }
+                    }
+                    // in the following children, the first and last tasks of this block keep their positions
+                    if(!fixAll(previousBlocks, m, block, block[0], true)
+                            || !fixAll(previousBlocks, m, block, block[block.length - 1], false)) {
+                        break;
+                    }
+                }
+                return children;
+            }
+
+            private void addChild(List<Node> children, boolean[] fixed) {
+                Node child = new Node(fixed, minHeads.clone(), minTails.clone());
+                if(child.bound < upperBound.get()) {
+                    children.add(child);
+                }
+            }
+        }
+
+        /** Fixes the arcs placing `job` before (or after) all the other jobs of the block on machine m.
+         * @return false if one of these arcs contradicts an already fixed arc. */
+        private boolean fixAll(boolean[] fixed, int m, int[] block, int job, boolean before) {
+            for(int other : block) {
+                if(other == job) {
+                    continue;
+                }
+                int a = before ? job : other;
+                int b = before ? other : job;
+                if(fixed[arc(m, b, a)]) {
+                    return false;
+                }
+                fixed[arc(m, a, b)] = true;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package jobshop.solvers;
+
+import java.util.PriorityQueue;
+
+/** Carlier's branch and bound for the one-machine problem with heads and tails.
+ *
+ * Each job j has a release date r_j, a duration p_j and a tail q_j. The objective is to sequence the jobs on the
+ * machine so as to minimize max(C_j + q_j), where C_j is the completion time of job j.
+ *
+ * At each node, a solution is built by Schrage's rule (at any time, run the available job with the longest tail).
+ * Either it is optimal for the node, or its critical sequence exhibits a job c that should be moved before or after
+ * the set J of jobs following it on the sequence: the two children respectively raise the tail or the release date
+ * of c. The exploration is bounded by a number of nodes, so that the best solution found is returned even when its
+ * optimality could not be proved.
+ */
+final class Carlier {
+
+    private final int n;
+    private final int[] r;
+    private final int[] p;
+    private final int[] q;
+    private final long nodeLimit;
+    private long nodes = 0;
+
+    /** Best sequence found and its value. */
+    private int[] best;
+    private int upperBound = Integer.MAX_VALUE;
+
+    /** Sequence and start times built by the last run of Schrage's rule. */
+    private final int[] sequence;
+    private final int[] starts;
+
+    private Carlier(int[] r, int[] p, int[] q, long nodeLimit) {
+        this.n = r.length;
+        this.r = r;
+        this.p = p;
+        this.q = q;
+        this.nodeLimit = nodeLimit;
+        this.sequence = new int[n];
+        this.starts = new int[n];
+    }
+
+    /** Sequence of the jobs, given by their indices, with the smallest value found within `nodeLimit` nodes.
+     * The arrays given as parameters are left unchanged. */
+    static int[] sequence(int[] r, int[] p, int[] q, long nodeLimit) {
+        Carlier carlier = new Carlier(r.clone(), p, q.clone(), nodeLimit);
+        carlier.branch();
+        return carlier.best;
+    }
+
+    /** Sequence built by Schrage's rule alone, without any branching. */
+    static int[] schrageSequence(int[] r, int[] p, int[] q) {
+        Carlier carlier = new Carlier(r, p, q, 0);
+        carlier.schrage();
+        return carlier.sequence;
+    }
+
+    /** Value max(C_j + q_j) of a sequence of jobs. */
+    static int value(int[] sequence, int[] r, int[] p, int[] q) {
+        int time = 0;
+        int value = 0;
+        for(int j : sequence) {
+            time = Math.max(time, r[j]) + p[j];
+            value = Math.max(value, time + q[j]);
+        }
+        return value;
+    }
+
+    private void branch() {
+        int value = schrage();
+        nodes++;
+        if(value < upperBound) {
+            upperBound = value;
+            best = sequence.clone();
+        }
+        if(nodes > nodeLimit) {
+            return;
+        }
+
+        // critical job b: the last one whose completion time plus tail gives the value
+        int b = n - 1;
+        while(starts[b] + p[sequence[b]] + q[sequence[b]] != value) {
+            b--;
+        }
+        // first job a of the block without idle time that ends with b
+        int a = b;
+        while(a > 0 && starts[a - 1] + p[sequence[a - 1]] == starts[a]) {
+            a--;
+        }
+        // last job c of the block with a tail smaller than the one of b
+        int c = b - 1;
+        while(c >= a && q[sequence[c]] >= q[sequence[b]]) {
+            c--;
+        }
+        if(c < a) {
+            // the solution is optimal for this node
+            return;
+        }
+
+        // J: jobs between c and b on the sequence
+        int minHead = Integer.MAX_VALUE;
+        int minTail = Integer.MAX_VALUE;
+        int sum = 0;
+        for(int i = c + 1; i <= b; ++i) {
+            int j = sequence[i];
+            minHead = Math.min(minHead, r[j]);
+            minTail = Math.min(minTail, q[j]);
+            sum += p[j];
+        }
+        int job = sequence[c];
+        int boundJ = minHead + sum + minTail;
+
+        // c after all jobs of J
+        int oldHead = r[job];
+        r[job] = Math.max(r[job], minHead + sum);
+        if(Math.max(boundJ, Math.min(minHead, r[job]) + sum + p[job] + Math.min(minTail, q[job])) < upperBound) {
+            branch();
+        }
+        r[job] = oldHead;
+
+        // c before all jobs of J
+        int oldTail = q[job];
+        q[job] = Math.max(q[job], minTail + sum);
+        if(Math.max(boundJ, Math.min(minHead, r[job]) + sum + p[job] + Math.min(minTail, q[job])) < upperBound) {
+            branch();
+        }
+        q[job] = oldTail;
+    }
+
+    /** Builds a sequence with Schrage's rule in `sequence` and `starts`.
+     * @return the value of the sequence. */
+    private int schrage() {
+        PriorityQueue<Integer> byRelease = new PriorityQueue<>(n, (a, b) -> Integer.compare(r[a], r[b]));
+        PriorityQueue<Integer> available = new PriorityQueue<>(n, (a, b) -> Integer.compare(q[b], q[a]));
+        for(int j = 0; j < n; ++j) {
+            byRelease.add(j);
+        }
+        int time = 0;
+        int value = 0;
+        for(int i = 0; i < n; ++i) {
+            if(available.isEmpty()) {
+                time = Math.max(time, r[byRelease.peek()]);
+            }
+            while(!byRelease.isEmpty() && r[byRelease.peek()] <= time) {
+                available.add(byRelease.poll());
+            }
+            int j = available.poll();
+            sequence[i] = j;
+            starts[i] = time;
+            time += p[j];
+            value = Math.max(value, time + q[j]);
+        }
+        return value;
+    }
+}
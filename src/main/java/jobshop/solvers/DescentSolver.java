@@ -1,13 +1,13 @@
 package jobshop.solvers;
 
 import jobshop.Instance;
+import jobshop.LowerBounds;
 import jobshop.Result;
 import jobshop.encodings.ResourceOrder;
 import jobshop.solvers.neighborhood.Neighbor;
 import jobshop.solvers.neighborhood.Neighborhood;
 import jobshop.solvers.neighborhood.Nowicki;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /** An empty shell to implement a descent solver. */
@@ -16,8 +16,6 @@ public class DescentSolver implements Solver {
     final Neighborhood<ResourceOrder> neighborhood;
     final Solver baseSolver;
 
-    private ArrayList<Integer> makespans = new ArrayList<Integer>();
-
     /** Creates a new descent solver with a given neighborhood and a solver for the initial solution.
      *
      * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
@@ -29,30 +27,37 @@ public class DescentSolver implements Solver {
     }
 
     @Override
-    public Result solve(Instance instance, long deadline) {
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
 
         Solver sol = baseSolver;
         Result res = sol.solve(instance, deadline);
         ResourceOrder ro = new ResourceOrder(res.schedule.get());
+        int lowerBound = LowerBounds.of(instance);
+        TranspositionCache cache = TranspositionCache.of(instance);
+        // makespan of the current solution, updated with each accepted move
+        int makespan = cache.makespan(ro);
+        long iteration = 0;
+        Progress progress = Progress.start(this, instance, listener);
+        progress.improved(0, res.schedule);
 
-
-        while(deadline - System.currentTimeMillis() > 1){
+        // no need to go on once the solution reaches the lower bound
+        while(deadline - System.currentTimeMillis() > 1 && makespan > lowerBound){
 
             Nowicki nowicki = (Nowicki) neighborhood;
             List<Neighbor<ResourceOrder>> neighbors = nowicki.generateNeighbors(ro);
 
             if(neighbors.isEmpty()){
-                return new Result(instance, ro.toSchedule(), Result.ExitCause.Blocked);
+                return Result.withLowerBound(instance, ro.toSchedule(), Result.ExitCause.Blocked, lowerBound);
             }
 
             Neighbor<ResourceOrder> best = neighbors.get(0);
             best.applyOn(ro);
-            int best_makespan = ro.toSchedule().get().makespan();
+            int best_makespan = cache.makespan(ro);
             best.undoApplyOn(ro);
 
             for(int i=1; i<neighbors.size(); ++i){
                 neighbors.get(i).applyOn(ro);
-                int new_makespan = ro.toSchedule().get().makespan();
+                int new_makespan = cache.makespan(ro);
                 neighbors.get(i).undoApplyOn(ro);
                 if( new_makespan < best_makespan){
                     best_makespan = new_makespan;
@@ -60,22 +65,20 @@ public class DescentSolver implements Solver {
                 }
             }
 
-            if(ro.toSchedule().get().makespan() > best_makespan){
-                makespans.add(best_makespan);
+            if(makespan > best_makespan){
                 best.applyOn(ro);
+                makespan = best_makespan;
+                SolverMetrics.iteration(this, instance, ++iteration, best_makespan);
+                progress.improved(iteration, best_makespan, ro::toSchedule);
             } else {
-                return new Result(instance, ro.toSchedule(), Result.ExitCause.Blocked);
+                return Result.withLowerBound(instance, ro.toSchedule(), Result.ExitCause.Blocked, lowerBound);
 
             }
         }
 
 
-        return new Result(instance, ro.toSchedule(), Result.ExitCause.Timeout);
+        return Result.withLowerBound(instance, ro.toSchedule(), Result.ExitCause.Timeout, lowerBound);
     }
 
-    public ArrayList<Integer> getMakespans(){
-        return this.makespans;
-    }
 
-    public void deleteMakespan(){ this.makespans.clear();}
 }
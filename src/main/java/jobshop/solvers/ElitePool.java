@@ -0,0 +1,140 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** A bounded pool of good and diverse solutions.
+ *
+ * Each solution is stored compactly as the jobs on each machine (see ResourceOrder.saveJobs) with its makespan.
+ * The distance between two solutions is the number of disjunctive arcs (relative order of two jobs on a machine)
+ * on which they disagree. It is computed by XOR-ing two bitsets holding, for each machine and each pair of jobs,
+ * whether the first job of the pair is processed before the second one.
+ */
+public class ElitePool {
+
+    /** A solution of the pool. */
+    public static final class Entry {
+        /** Jobs on each machine, machine after machine. */
+        public final int[] jobs;
+        public final int makespan;
+        /** Bitset of the disjunctive arcs of the solution. */
+        final long[] arcs;
+
+        Entry(int[] jobs, int makespan, long[] arcs) {
+            this.jobs = jobs;
+            this.makespan = makespan;
+            this.arcs = arcs;
+        }
+    }
+
+    final Instance instance;
+    final int capacity;
+    private final List<Entry> entries = new ArrayList<>();
+
+    /** Number of pairs of jobs on a machine. */
+    private final int pairsPerMachine;
+
+    /** Creates an empty pool that can hold up to `capacity` solutions of the given instance. */
+    public ElitePool(Instance instance, int capacity) {
+        this.instance = instance;
+        this.capacity = capacity;
+        this.pairsPerMachine = instance.numJobs * (instance.numJobs - 1) / 2;
+    }
+
+    /** Proposes a solution to the pool.
+     *
+     * The solution is rejected if it is already in the pool. If the pool is full, it replaces the closest of the
+     * solutions that are worse than itself, and is rejected if there is none.
+     *
+     * @return true if the solution was added to the pool.
+     */
+    public boolean offer(ResourceOrder ro, int makespan) {
+        int[] jobs = new int[instance.numMachines * instance.numJobs];
+        ro.saveJobs(jobs);
+        return offer(jobs, makespan);
+    }
+
+    /** Same as offer(ResourceOrder, int) for a solution given as the jobs on each machine. */
+    public boolean offer(int[] jobs, int makespan) {
+        Entry candidate = new Entry(jobs.clone(), makespan, arcs(jobs));
+
+        int closest = -1;
+        int closestDistance = Integer.MAX_VALUE;
+        for(int i = 0; i < entries.size(); ++i) {
+            int d = distance(candidate, entries.get(i));
+            if(d == 0) {
+                return false;
+            }
+            if(entries.get(i).makespan > makespan && d < closestDistance) {
+                closestDistance = d;
+                closest = i;
+            }
+        }
+
+        if(entries.size() < capacity) {
+            entries.add(candidate);
+            return true;
+        } else if(closest >= 0) {
+            entries.set(closest, candidate);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /** Number of solutions in the pool. */
+    public int size() {
+        return entries.size();
+    }
+
+    /** The i-th solution of the pool. */
+    public Entry get(int i) {
+        return entries.get(i);
+    }
+
+    /** The solution of the pool with the smallest makespan. */
+    public Entry best() {
+        Entry best = null;
+        for(Entry e : entries) {
+            if(best == null || e.makespan < best.makespan) {
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    /** Number of disjunctive arcs that differ between the two solutions. */
+    public int distance(Entry a, Entry b) {
+        int d = 0;
+        for(int w = 0; w < a.arcs.length; ++w) {
+            d += Long.bitCount(a.arcs[w] ^ b.arcs[w]);
+        }
+        return d;
+    }
+
+    /** Builds the bitset of the disjunctive arcs: for each machine and each pair of jobs (j1 < j2), the bit is set if
+     * j1 is processed before j2 on this machine. */
+    private long[] arcs(int[] jobs) {
+        int n = instance.numJobs;
+        long[] arcs = new long[(instance.numMachines * pairsPerMachine + 63) / 64];
+        int[] position = new int[n];
+        for(int m = 0; m < instance.numMachines; ++m) {
+            for(int i = 0; i < n; ++i) {
+                position[jobs[m * n + i]] = i;
+            }
+            int bit = m * pairsPerMachine;
+            for(int j1 = 0; j1 < n; ++j1) {
+                for(int j2 = j1 + 1; j2 < n; ++j2) {
+                    if(position[j1] < position[j2]) {
+                        arcs[bit >>> 6] |= 1L << bit;
+                    }
+                    bit++;
+                }
+            }
+        }
+        return arcs;
+    }
+}
@@ -1,14 +1,17 @@
 package jobshop.solvers;
 
 import jobshop.Instance;
+import jobshop.LowerBounds;
 import jobshop.Result;
 import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
 import jobshop.encodings.Task;
 import jobshop.solvers.neighborhood.Nowicki;
 
 import javax.naming.OperationNotSupportedException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /** An empty shell to implement a greedy solver. */
@@ -30,7 +33,7 @@ public class GreedySolver implements Solver {
     }
 
     @Override
-    public Result solve(Instance instance, long deadline) {
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
 
         int[] freeTimeOfMachine = new int[instance.numMachines];
         int[] freeTimeOfJob = new int[instance.numJobs];
@@ -52,7 +55,16 @@ public class GreedySolver implements Solver {
 
             ArrayList<Task> startingSoonest = null;
 
-            switch(this.priority) {
+            // tasks of null duration (in sub-instances, the tasks that are not to be scheduled) delay no other task:
+            // they are placed first, whatever the priority
+            for(Task task : possibleTasks) {
+                if(instance.duration(task) == 0) {
+                    chosenTask = task;
+                    break;
+                }
+            }
+
+            if(chosenTask == null) switch(this.priority) {
                 case SPT:
                     chosenTask = makeSPTchoice(instance, possibleTasks);
                     break;
@@ -83,7 +95,7 @@ public class GreedySolver implements Solver {
 
             int machineEndTime = freeTimeOfMachine[instance.machine(chosenTask)];
             int jobEndTime = freeTimeOfJob[chosenTask.job];
-            int date =  Math.max(machineEndTime, jobEndTime);
+            int date =  Math.max(Math.max(machineEndTime, jobEndTime), instance.release(chosenTask));
             freeTimeOfMachine[instance.machine(chosenTask)]  = date + instance.duration(chosenTask);
             freeTimeOfJob[chosenTask.job]  = date + instance.duration(chosenTask);
 
@@ -99,7 +111,9 @@ public class GreedySolver implements Solver {
 
         }
 
-        return new Result(instance, this.sol.toSchedule(), Result.ExitCause.Blocked);
+        Optional<Schedule> schedule = this.sol.toSchedule();
+        Progress.start(this, instance, listener).improved(0, schedule);
+        return Result.withLowerBound(instance, schedule, Result.ExitCause.Blocked, LowerBounds.of(instance));
     }
 
 
@@ -160,7 +174,7 @@ public class GreedySolver implements Solver {
             //System.out.println(t);
             int machineEndTime = freeTimeOfMachine[instance.machine(t)];
             int jobEndTime = freeTimeOfJob[t.job];
-            startingTimes.add( Math.max(machineEndTime, jobEndTime));
+            startingTimes.add( Math.max(Math.max(machineEndTime, jobEndTime), instance.release(t)));
         }
 
         //System.out.println("---------------");
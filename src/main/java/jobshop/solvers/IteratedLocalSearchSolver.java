@@ -0,0 +1,142 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.neighborhood.Neighbor;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.Nowicki;
+
+import java.util.List;
+import java.util.Random;
+
+/** Iterated local search built around a variable neighborhood descent.
+ *
+ * The descent explores the given neighborhoods in order (cheapest first) and comes back to the first one as soon as
+ * an improving neighbor is found. When no neighborhood can improve the current solution, the solution is perturbed
+ * by a kick (random swaps of adjacent tasks on the critical path) and the descent is restarted.
+ * The strength of the kick grows each time it fails to improve the best solution and is reset on improvement.
+ * The local optimum found after a kick becomes the starting point of the next kick if it is within ACCEPTANCE of the
+ * best solution, so that the search may cross plateaus without drifting away from the best solution.
+ *
+ * Contrary to the DescentSolver, this solver never gets blocked and keeps searching until the deadline.
+ */
+public class IteratedLocalSearchSolver implements Solver {
+
+    /** Neighborhoods of the descent, ordered by increasing cost of exploration. */
+    final List<Neighborhood<ResourceOrder>> neighborhoods;
+    final Solver baseSolver;
+    final long seed;
+
+    /** Number of random swaps of the weakest kick. */
+    static final int MIN_KICK = 2;
+
+    /** Relative degradation of the makespan, with respect to the best one, that is still accepted after a kick (1%). */
+    static final double ACCEPTANCE = 0.01;
+
+    /** Used to kick the solution by a random walk on its critical path. */
+    private final Nowicki nowicki = new Nowicki();
+
+    /** Creates a new iterated local search solver.
+     *
+     * @param neighborhoods Neighborhoods used by the descent, from the cheapest to the most expensive.
+     * @param baseSolver A solver to provide the initial solution.
+     * @param seed Seed of the random number generator used for the kicks.
+     */
+    public IteratedLocalSearchSolver(List<Neighborhood<ResourceOrder>> neighborhoods, Solver baseSolver, long seed) {
+        this.neighborhoods = neighborhoods;
+        this.baseSolver = baseSolver;
+        this.seed = seed;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        Random generator = new Random(seed);
+
+        Result res = baseSolver.solve(instance, deadline);
+        ResourceOrder current = new ResourceOrder(res.schedule.get());
+        int currentMakespan = descent(current, deadline);
+
+        ResourceOrder best = current.snapshot();
+        int bestMakespan = currentMakespan;
+        int lowerBound = LowerBounds.of(instance);
+
+        // the strongest kick moves roughly a tenth of the tasks
+        int maxKick = Math.max(MIN_KICK, instance.numJobs * instance.numMachines / 10);
+        int kick = MIN_KICK;
+        long iteration = 0;
+        Progress progress = Progress.start(this, instance, listener);
+        progress.improved(0, bestMakespan, best::toSchedule);
+
+        while(deadline - System.currentTimeMillis() > 1 && bestMakespan > lowerBound) {
+            ResourceOrder candidate = current.snapshot();
+            nowicki.randomWalk(candidate, kick, generator);
+            int candidateMakespan = descent(candidate, deadline);
+            SolverMetrics.iteration(this, instance, ++iteration, candidateMakespan);
+
+            kick = nextKick(kick, candidateMakespan < bestMakespan, maxKick);
+            if(candidateMakespan < bestMakespan) {
+                best = candidate.snapshot();
+                bestMakespan = candidateMakespan;
+                progress.improved(iteration, candidateMakespan, best::toSchedule);
+            }
+
+            // close enough to the best solution: the candidate becomes the starting point of the next kick
+            if(accepts(candidateMakespan, bestMakespan)) {
+                current = candidate;
+                currentMakespan = candidateMakespan;
+            }
+        }
+
+        return Result.withLowerBound(instance, best.toSchedule(), Result.ExitCause.Timeout, lowerBound);
+    }
+
+    /** Strength of the next kick: reset to MIN_KICK if the last one improved the best solution, otherwise one more
+     * swap, up to maxKick. */
+    static int nextKick(int kick, boolean improved, int maxKick) {
+        return improved ? MIN_KICK : Math.min(maxKick, kick + 1);
+    }
+
+    /** True if the local optimum found after a kick, of the given makespan, is close enough to the best solution to
+     * become the starting point of the next kick. */
+    static boolean accepts(int candidateMakespan, int bestMakespan) {
+        return candidateMakespan <= bestMakespan * (1 + ACCEPTANCE);
+    }
+
+    /** Variable neighborhood descent: applies the best improving neighbor of the first neighborhood that has one,
+     * until none of the neighborhoods can improve the solution or the deadline is met.
+     *
+     * @return the makespan of the local optimum, that is left in `ro`.
+     */
+    int descent(ResourceOrder ro, long deadline) {
+        int makespan = makespan(ro);
+        int k = 0;
+        while(k < neighborhoods.size() && deadline - System.currentTimeMillis() > 1) {
+            Neighbor<ResourceOrder> best = null;
+            int bestMakespan = makespan;
+            for(Neighbor<ResourceOrder> neighbor : neighborhoods.get(k).generateNeighbors(ro)) {
+                neighbor.applyOn(ro);
+                int newMakespan = makespan(ro);
+                neighbor.undoApplyOn(ro);
+                if(newMakespan < bestMakespan) {
+                    bestMakespan = newMakespan;
+                    best = neighbor;
+                }
+            }
+
+            if(best != null) {
+                best.applyOn(ro);
+                makespan = bestMakespan;
+                k = 0;
+            } else {
+                k++;
+            }
+        }
+        return makespan;
+    }
+
+    private static int makespan(ResourceOrder ro) {
+        return TranspositionCache.of(ro.instance).makespan(ro);
+    }
+}
@@ -0,0 +1,217 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/** Large neighborhood search whose repair is an exact, but bounded, branch and bound.
+ *
+ * At each iteration, several windows of the current solution are destroyed: some tasks are freed, which means that
+ * their relative order with the other freed tasks of their machine may change, while all other disjunctive arcs of
+ * the current solution stay fixed. Each window is repaired by the search of BranchAndBoundSolver, limited in number
+ * of nodes, with the current makespan as upper bound. The windows are independent and are repaired in parallel;
+ * the best improvement, if any, becomes the current solution.
+ *
+ * Windows are built by one of several destroy operators, chosen at random with a probability that follows its recent
+ * success rate. The number of tasks freed on each machine grows as long as no window improves the solution.
+ */
+public class LargeNeighborhoodSearchSolver implements Solver {
+
+    /** Ways of choosing the tasks to free. */
+    enum Destroy {
+        /** Tasks starting in a random time window. */
+        TIME_WINDOW,
+        /** All tasks of a few random machines. */
+        MACHINES,
+        /** Tasks of random blocks of the critical path, with their neighbors on the machine. */
+        CRITICAL
+    }
+
+    final Solver baseSolver;
+    /** Initial number of tasks freed per machine. */
+    final int windowSize;
+    /** Maximum number of nodes of the branch and bound that repairs a window. */
+    final long nodeLimit;
+    final long seed;
+
+    /** Weight of the last outcome in the success rate of a destroy operator. */
+    static final double REACTION = 0.2;
+    /** Smallest weight of a destroy operator, so that no operator is ever abandoned. */
+    static final double MIN_WEIGHT = 0.05;
+
+    /** Creates a new large neighborhood search solver.
+     *
+     * @param baseSolver A solver to provide the initial solution.
+     * @param windowSize Initial number of tasks freed on each machine.
+     * @param nodeLimit Maximum number of nodes explored when repairing a window.
+     * @param seed Seed of the random number generator.
+     */
+    public LargeNeighborhoodSearchSolver(Solver baseSolver, int windowSize, long nodeLimit, long seed) {
+        this.baseSolver = baseSolver;
+        this.windowSize = windowSize;
+        this.nodeLimit = nodeLimit;
+        this.seed = seed;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        Random generator = new Random(seed);
+        Destroy[] operators = Destroy.values();
+        double[] weights = new double[operators.length];
+        Arrays.fill(weights, 1);
+
+        Schedule current = baseSolver.solve(instance, deadline).schedule.get();
+        int lowerBound = LowerBounds.of(instance);
+        int windows = Math.max(2, Runtime.getRuntime().availableProcessors());
+        int size = windowSize;
+        Progress progress = Progress.start(this, instance, listener);
+        progress.improved(0, Optional.of(current));
+        long iteration = 0;
+
+        while(deadline - System.currentTimeMillis() > 1 && current.makespan() > lowerBound) {
+            iteration++;
+            // windows are drawn sequentially so that the search only depends on the seed
+            Destroy[] chosen = new Destroy[windows];
+            long[] seeds = new long[windows];
+            for(int w = 0; w < windows; ++w) {
+                chosen[w] = operators[roulette(weights, generator)];
+                seeds[w] = generator.nextLong();
+            }
+
+            Schedule start = current;
+            int freed = size;
+            Schedule[] repaired = IntStream.range(0, windows).parallel()
+                    .mapToObj(w -> repair(start, destroy(start, chosen[w], freed, new Random(seeds[w])), deadline))
+                    .toArray(Schedule[]::new);
+
+            Schedule best = null;
+            for(int w = 0; w < windows; ++w) {
+                boolean improved = repaired[w] != null;
+                reward(weights, chosen[w].ordinal(), improved);
+                if(improved && (best == null || repaired[w].makespan() < best.makespan())) {
+                    best = repaired[w];
+                }
+            }
+            if(best != null) {
+                current = best;
+                size = windowSize;
+                progress.improved(iteration, Optional.of(current));
+            } else {
+                size = Math.min(instance.numJobs, size + 1);
+            }
+        }
+
+        return Result.withLowerBound(instance, Optional.of(current), Result.ExitCause.Timeout, lowerBound);
+    }
+
+    /** Updates the weight of a destroy operator, a moving average of its success rate, with the outcome of one of its
+     * windows. */
+    static void reward(double[] weights, int operator, boolean improved) {
+        weights[operator] = Math.max(MIN_WEIGHT, (1 - REACTION) * weights[operator] + REACTION * (improved ? 1 : 0));
+    }
+
+    /** Index of a weight chosen with a probability proportional to its value. */
+    static int roulette(double[] weights, Random generator) {
+        double total = 0;
+        for(double w : weights) {
+            total += w;
+        }
+        double x = generator.nextDouble() * total;
+        for(int i = 0; i < weights.length - 1; ++i) {
+            x -= weights[i];
+            if(x < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /** Tasks freed by a destroy operator: free[m * numJobs + job] is true if the task of `job` on machine m is free.
+     *
+     * @param size Number of tasks to free on each machine (approximately for the time window).
+     */
+    static boolean[] destroy(Schedule schedule, Destroy operator, int size, Random generator) {
+        Instance instance = schedule.instance;
+        int n = instance.numJobs;
+        boolean[] free = new boolean[instance.numMachines * n];
+        switch(operator) {
+            case TIME_WINDOW: {
+                int makespan = schedule.makespan();
+                int width = Math.max(1, (int) ((long) makespan * size / n));
+                int from = generator.nextInt(Math.max(1, makespan - width));
+                for(int j = 0; j < n; ++j) {
+                    for(int t = 0; t < instance.numTasks; ++t) {
+                        int s = schedule.startTime(j, t);
+                        if(s >= from && s < from + width) {
+                            free[instance.machine(j, t) * n + j] = true;
+                        }
+                    }
+                }
+                break;
+            }
+            case MACHINES: {
+                // about as many free tasks as with the other operators
+                int machines = Math.max(1, Math.min(instance.numMachines, size * instance.numMachines / n));
+                for(int k = 0; k < machines; ++k) {
+                    int m = generator.nextInt(instance.numMachines);
+                    for(int j = 0; j < n; ++j) {
+                        free[m * n + j] = true;
+                    }
+                }
+                break;
+            }
+            case CRITICAL: {
+                ResourceOrder ro = new ResourceOrder(schedule);
+                List<Nowicki.Block> blocks = new Nowicki().blocksOfCriticalPath(ro);
+                int budget = size * instance.numMachines;
+                for(int attempt = 0; attempt < blocks.size() && budget > 0; ++attempt) {
+                    Nowicki.Block block = blocks.get(generator.nextInt(blocks.size()));
+                    int first = Math.max(0, block.firstTask - 1);
+                    int last = Math.min(n - 1, block.lastTask + 1);
+                    for(int i = first; i <= last; ++i) {
+                        int job = ro.getTaskOfMachine(block.machine, i).job;
+                        if(!free[block.machine * n + job]) {
+                            free[block.machine * n + job] = true;
+                            budget--;
+                        }
+                    }
+                }
+                break;
+            }
+        }
+        return free;
+    }
+
+    /** Reoptimizes the free tasks with all other disjunctive arcs of the schedule fixed.
+     * @return an improved schedule, or null if none was found. */
+    Schedule repair(Schedule schedule, boolean[] free, long deadline) {
+        Instance instance = schedule.instance;
+        int n = instance.numJobs;
+        ResourceOrder ro = new ResourceOrder(schedule);
+        boolean[] fixed = new boolean[instance.numMachines * n * n];
+        for(int m = 0; m < instance.numMachines; ++m) {
+            for(int i = 0; i < n; ++i) {
+                int a = ro.getTaskOfMachine(m, i).job;
+                for(int k = i + 1; k < n; ++k) {
+                    int b = ro.getTaskOfMachine(m, k).job;
+                    if(!free[m * n + a] || !free[m * n + b]) {
+                        fixed[(m * n + a) * n + b] = true;
+                    }
+                }
+            }
+        }
+
+        BranchAndBoundSolver.Search search = new BranchAndBoundSolver.Search(instance, schedule, deadline, nodeLimit, false, null);
+        search.run(fixed);
+        return search.upperBound() < schedule.makespan() ? search.bestSchedule() : null;
+    }
+}
@@ -0,0 +1,280 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+
+import java.util.Arrays;
+
+/** Path relinking between two solutions given as the jobs on each machine (see ResourceOrder.saveJobs).
+ *
+ * Starting from an initiating solution, the walk repeatedly exchanges two adjacent jobs on a machine whose relative
+ * order differs from the one of the guiding solution. Each such swap reduces the distance (number of disjunctive arcs
+ * that differ) between the two solutions by exactly one, so the walk reaches the guiding solution after as many steps
+ * as the initial distance. At each step, the swap that leads to the smallest makespan is selected.
+ *
+ * Intermediate solutions are never copied: swaps are applied in place and evaluated on primitive arrays. Candidate
+ * swaps are not evaluated by a full pass each: the heads and tails of the tasks of the current solution are computed
+ * once per step, and each swap of two adjacent tasks u, v is estimated in constant time from the heads of their
+ * predecessors and the tails of their successors (Taillard, 1994). This estimate is the exact length of the longest
+ * path through u or v, so it never overestimates the makespan. Only the chosen swap is evaluated by a full pass, which
+ * also detects the swaps that would create a cycle.
+ */
+public class PathRelinking {
+
+    final Instance instance;
+
+    /** For each job and machine, index of the task of the job that executes on the machine. */
+    private final int[] taskOnMachine;
+
+    // buffers of the evaluation, reused between calls
+    /** For each job and machine, start time of the task of the job on the machine in the last evaluated solution. */
+    private final int[] head;
+    /** For each job and machine, length of the longest path from the end of the task to the end of the schedule. */
+    private final int[] tail;
+    /** For each job and machine, position of the job on the machine in the last evaluated solution. */
+    private final int[] position;
+    /** Indices (job * numMachines + machine) of the tasks of the last evaluated solution, in topological order. */
+    private final int[] order;
+    private final int[] nextTask;
+    private final int[] nextPosition;
+    private final int[] jobReady;
+    private final int[] machineReady;
+    private final int[] stack;
+    // candidate swaps of a step: machine, position on the machine and estimated makespan
+    private final int[] candidateMachine;
+    private final int[] candidatePosition;
+    private final int[] candidateEstimate;
+
+    public PathRelinking(Instance instance) {
+        this.instance = instance;
+        int n = instance.numJobs;
+        int m = instance.numMachines;
+        this.taskOnMachine = new int[n * m];
+        for(int j = 0; j < n; ++j) {
+            for(int t = 0; t < instance.numTasks; ++t) {
+                taskOnMachine[j * m + instance.machine(j, t)] = t;
+            }
+        }
+        this.head = new int[n * m];
+        this.tail = new int[n * m];
+        this.position = new int[n * m];
+        this.order = new int[n * m];
+        this.nextTask = new int[n];
+        this.nextPosition = new int[m];
+        this.jobReady = new int[n];
+        this.machineReady = new int[m];
+        this.stack = new int[m];
+        this.candidateMachine = new int[m];
+        this.candidatePosition = new int[m];
+        this.candidateEstimate = new int[m];
+    }
+
+    /** Walks from `from` to `to` and returns the makespan of the best solution met on the way (both ends excluded),
+     * or Integer.MAX_VALUE if the two solutions are neighbors or the walk was blocked before any solution was met.
+     * The walk stops at the deadline, returning the best solution met so far.
+     *
+     * @param from Initiating solution, left unchanged.
+     * @param to Guiding solution.
+     * @param best Array in which the best intermediate solution is written.
+     * @param deadline Absolute time at which the walk must stop.
+     */
+    public int relink(int[] from, int[] to, int[] best, long deadline) {
+        int n = instance.numJobs;
+        int[] current = from.clone();
+
+        // position of each job on each machine in the guiding solution
+        int[] guidePosition = new int[to.length];
+        for(int m = 0; m < instance.numMachines; ++m) {
+            for(int i = 0; i < n; ++i) {
+                guidePosition[m * n + to[m * n + i]] = i;
+            }
+        }
+
+        int bestMakespan = Integer.MAX_VALUE;
+        if(makespan(current) == Integer.MAX_VALUE) {
+            return bestMakespan;
+        }
+        while(deadline - System.currentTimeMillis() > 1) {
+            tails(current);
+
+            // candidate moves: on each machine, the first adjacent pair that is in the opposite order in the guide
+            int candidates = 0;
+            for(int m = 0; m < instance.numMachines; ++m) {
+                for(int i = 0; i < n - 1; ++i) {
+                    int a = current[m * n + i];
+                    int b = current[m * n + i + 1];
+                    if(guidePosition[m * n + a] > guidePosition[m * n + b]) {
+                        candidateMachine[candidates] = m;
+                        candidatePosition[candidates] = i;
+                        candidateEstimate[candidates] = estimate(current, m, i);
+                        candidates++;
+                        break;
+                    }
+                }
+            }
+            if(candidates == 0) {
+                // we reached the guiding solution
+                return bestMakespan;
+            }
+
+            // apply the candidate with the best estimate, unless it creates a cycle (then try the next one)
+            int makespan = Integer.MAX_VALUE;
+            while(makespan == Integer.MAX_VALUE && candidates > 0) {
+                int chosen = 0;
+                for(int c = 1; c < candidates; ++c) {
+                    if(candidateEstimate[c] < candidateEstimate[chosen]) {
+                        chosen = c;
+                    }
+                }
+                int index = candidateMachine[chosen] * n + candidatePosition[chosen];
+                swap(current, index);
+                makespan = makespan(current);
+                if(makespan == Integer.MAX_VALUE) {
+                    swap(current, index);
+                    candidates--;
+                    candidateMachine[chosen] = candidateMachine[candidates];
+                    candidatePosition[chosen] = candidatePosition[candidates];
+                    candidateEstimate[chosen] = candidateEstimate[candidates];
+                }
+            }
+            if(makespan == Integer.MAX_VALUE) {
+                // all the candidate moves lead to invalid solutions
+                return bestMakespan;
+            }
+
+            if(makespan < bestMakespan && !Arrays.equals(current, to)) {
+                bestMakespan = makespan;
+                System.arraycopy(current, 0, best, 0, current.length);
+            }
+        }
+        return bestMakespan;
+    }
+
+    /** Length of the longest path through one of the two tasks at `position` and `position + 1` on the given
+     * machine, once swapped. Requires the heads and tails of the current solution (see makespan() and tails()). */
+    private int estimate(int[] jobs, int machine, int position) {
+        int n = instance.numJobs;
+        int numMachines = instance.numMachines;
+        int u = jobs[machine * n + position];
+        int v = jobs[machine * n + position + 1];
+        int taskU = taskOnMachine[u * numMachines + machine];
+        int taskV = taskOnMachine[v * numMachines + machine];
+        int durationU = instance.duration(u, taskU);
+        int durationV = instance.duration(v, taskV);
+
+        // end of the task before u on the machine, start of the task after v on the machine (from the end)
+        int machineBefore = 0;
+        if(position > 0) {
+            int w = jobs[machine * n + position - 1];
+            machineBefore = head[w * numMachines + machine] + instance.duration(w, taskOnMachine[w * numMachines + machine]);
+        }
+        int machineAfter = 0;
+        if(position + 2 < n) {
+            int w = jobs[machine * n + position + 2];
+            machineAfter = tail[w * numMachines + machine] + instance.duration(w, taskOnMachine[w * numMachines + machine]);
+        }
+
+        int headV = Math.max(Math.max(jobBefore(v, taskV), machineBefore), instance.release(v, taskV));
+        int headU = Math.max(Math.max(jobBefore(u, taskU), headV + durationV), instance.release(u, taskU));
+        int tailU = Math.max(jobAfter(u, taskU), machineAfter);
+        int tailV = Math.max(jobAfter(v, taskV), durationU + tailU);
+        return Math.max(headV + durationV + tailV, headU + durationU + tailU);
+    }
+
+    /** End of the task before the given one in its job, 0 for the first task. */
+    private int jobBefore(int job, int task) {
+        if(task == 0) {
+            return 0;
+        }
+        return head[job * instance.numMachines + instance.machine(job, task - 1)] + instance.duration(job, task - 1);
+    }
+
+    /** Longest path from the start of the task after the given one in its job to the end, 0 for the last task. */
+    private int jobAfter(int job, int task) {
+        if(task == instance.numTasks - 1) {
+            return 0;
+        }
+        return tail[job * instance.numMachines + instance.machine(job, task + 1)] + instance.duration(job, task + 1);
+    }
+
+    /** Computes the tails of the tasks of the solution last evaluated by makespan(), which must be valid. */
+    private void tails(int[] jobs) {
+        int n = instance.numJobs;
+        int numMachines = instance.numMachines;
+        for(int k = n * numMachines - 1; k >= 0; --k) {
+            int x = order[k];
+            int job = x / numMachines;
+            int m = x % numMachines;
+            int length = jobAfter(job, taskOnMachine[x]);
+            if(position[x] + 1 < n) {
+                int next = jobs[m * n + position[x] + 1];
+                int y = next * numMachines + m;
+                length = Math.max(length, tail[y] + instance.duration(next, taskOnMachine[y]));
+            }
+            tail[x] = length;
+        }
+    }
+
+    private static void swap(int[] jobs, int index) {
+        int tmp = jobs[index];
+        jobs[index] = jobs[index + 1];
+        jobs[index + 1] = tmp;
+    }
+
+    /** Makespan of the solution, or Integer.MAX_VALUE if it contains a cycle.
+     *
+     * Tasks are scheduled as soon as they are the next one on both their job and their machine. Their start times,
+     * positions and order are kept for estimate() and tails().
+     */
+    int makespan(int[] jobs) {
+        int n = instance.numJobs;
+        int numMachines = instance.numMachines;
+        Arrays.fill(nextTask, 0);
+        Arrays.fill(nextPosition, 0);
+        Arrays.fill(jobReady, 0);
+        Arrays.fill(machineReady, 0);
+
+        // machines whose next task is also the next one of its job
+        int top = 0;
+        for(int m = 0; m < numMachines; ++m) {
+            if(taskOnMachine[jobs[m * n] * numMachines + m] == 0) {
+                stack[top++] = m;
+            }
+        }
+
+        int scheduled = 0;
+        int makespan = 0;
+        while(top > 0) {
+            int m = stack[--top];
+            int job = jobs[m * n + nextPosition[m]];
+            int task = nextTask[job];
+            int start = Math.max(Math.max(jobReady[job], machineReady[m]), instance.release(job, task));
+            int end = start + instance.duration(job, task);
+            int x = job * numMachines + m;
+            head[x] = start;
+            position[x] = nextPosition[m];
+            order[scheduled] = x;
+            jobReady[job] = end;
+            machineReady[m] = end;
+            makespan = Math.max(makespan, end);
+            nextTask[job]++;
+            nextPosition[m]++;
+            scheduled++;
+
+            // the next task of the job may now be schedulable
+            if(nextTask[job] < instance.numTasks) {
+                int m2 = instance.machine(job, nextTask[job]);
+                if(jobs[m2 * n + nextPosition[m2]] == job) {
+                    stack[top++] = m2;
+                }
+            }
+            // and so may be the next task of the machine
+            if(nextPosition[m] < n) {
+                int job2 = jobs[m * n + nextPosition[m]];
+                if(taskOnMachine[job2 * numMachines + m] == nextTask[job2]) {
+                    stack[top++] = m;
+                }
+            }
+        }
+        return scheduled == n * numMachines ? makespan : Integer.MAX_VALUE;
+    }
+}
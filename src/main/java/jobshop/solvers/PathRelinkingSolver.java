@@ -0,0 +1,111 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.JobNumbers;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+
+import java.util.Optional;
+import java.util.Random;
+
+/** Hybrid of taboo search and path relinking over a pool of elite solutions.
+ *
+ * The pool is first filled with taboo-improved solutions: the one of the base solver and random ones.
+ * Then, until the deadline, two solutions of the pool are relinked, the best solution of the path is improved by a
+ * short taboo search and offered to the pool.
+ */
+public class PathRelinkingSolver implements Solver {
+
+    final Solver baseSolver;
+    final int poolSize;
+    /** Time given to each taboo search, in milliseconds. */
+    final long improvementTime;
+    final long seed;
+
+    /** Creates a new path relinking solver.
+     *
+     * @param baseSolver A solver to provide the first solution of the pool.
+     * @param poolSize Number of elite solutions to maintain.
+     * @param improvementTime Maximum time (in milliseconds) of each run of taboo search.
+     * @param seed Seed of the random number generator.
+     */
+    public PathRelinkingSolver(Solver baseSolver, int poolSize, long improvementTime, long seed) {
+        this.baseSolver = baseSolver;
+        this.poolSize = poolSize;
+        this.improvementTime = improvementTime;
+        this.seed = seed;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        Random generator = new Random(seed);
+        ElitePool pool = new ElitePool(instance, poolSize);
+        PathRelinking relinking = new PathRelinking(instance);
+
+        Schedule initial = baseSolver.solve(instance, deadline).schedule.get();
+        Progress progress = Progress.start(this, instance, listener);
+        progress.improved(0, Optional.of(initial));
+        long iteration = 0;
+        progress.improved(iteration, Optional.of(offerImproved(pool, initial, deadline)));
+        int lowerBound = LowerBounds.of(instance);
+
+        // fill the pool with improved random solutions
+        for(int attempt = 0; attempt < 2 * poolSize && pool.size() < poolSize; ++attempt) {
+            if(deadline - System.currentTimeMillis() <= 1 || pool.best().makespan <= lowerBound) {
+                break;
+            }
+            progress.improved(iteration, Optional.of(offerImproved(pool, randomSolution(instance, generator), deadline)));
+        }
+
+        int[] intermediate = new int[instance.numMachines * instance.numJobs];
+        ResourceOrder ro = new ResourceOrder(initial);
+        while(deadline - System.currentTimeMillis() > 1 && pool.size() >= 2 && pool.best().makespan > lowerBound) {
+            int i = generator.nextInt(pool.size());
+            int j = generator.nextInt(pool.size() - 1);
+            if(j >= i) {
+                j++;
+            }
+
+            iteration++;
+            int makespan = relinking.relink(pool.get(i).jobs, pool.get(j).jobs, intermediate, deadline);
+            if(makespan == Integer.MAX_VALUE) {
+                continue;
+            }
+            ro.restoreJobs(intermediate);
+            progress.improved(iteration, Optional.of(offerImproved(pool, ro.toSchedule().get(), deadline)));
+        }
+
+        ro.restoreJobs(pool.best().jobs);
+        return Result.withLowerBound(instance, ro.toSchedule(), Result.ExitCause.Timeout, lowerBound);
+    }
+
+    /** Improves the given solution with a short taboo search, offers the result to the pool and returns it. */
+    private Schedule offerImproved(ElitePool pool, Schedule start, long deadline) {
+        Solver taboo = new TSABSolver(new Nowicki(), (instance, d, l) -> new Result(instance, start.toSchedule(), Result.ExitCause.Blocked),
+                500, 8, 20);
+        long end = Math.min(deadline, System.currentTimeMillis() + improvementTime);
+        Schedule improved = taboo.solve(start.instance, end).schedule.get();
+        pool.offer(new ResourceOrder(improved), improved.makespan());
+        return improved;
+    }
+
+    /** A random solution in the job numbers encoding. */
+    private static Schedule randomSolution(Instance instance, Random generator) {
+        JobNumbers sol = new JobNumbers(instance);
+        for(int j = 0; j < instance.numJobs; j++) {
+            for(int t = 0; t < instance.numTasks; t++) {
+                sol.addTaskOfJob(j);
+            }
+        }
+        for(int i = sol.jobs.length - 1; i > 0; i--) {
+            int k = generator.nextInt(i + 1);
+            int tmp = sol.jobs[k];
+            sol.jobs[k] = sol.jobs[i];
+            sol.jobs[i] = tmp;
+        }
+        return sol.toSchedule().get();
+    }
+}
@@ -0,0 +1,58 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Schedule;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/** Progress of a run of a solver: each solver creates one at the beginning of solve(), and reports to it every solution
+ * better than the previous ones, which is forwarded to the listener given to solve() and counted in SolverMetrics.
+ *
+ * Nothing is buffered: a solution is only built (by the supplier given to improved()) if the listener asks for it.
+ * Reports that do not improve on the best makespan reported so far are ignored, so that a solver may forward the
+ * progress of the solvers it runs.
+ */
+public final class Progress {
+
+    private final Solver solver;
+    private final Instance instance;
+    private final long start;
+    private final SolverListener listener;
+    private int best = Integer.MAX_VALUE;
+
+    private Progress(Solver solver, Instance instance, SolverListener listener) {
+        this.solver = solver;
+        this.instance = instance;
+        this.start = System.nanoTime();
+        this.listener = listener;
+    }
+
+    /** Starts reporting the progress of a run of the given solver on the given instance to the given listener. */
+    public static Progress start(Solver solver, Instance instance, SolverListener listener) {
+        return new Progress(solver, instance, listener);
+    }
+
+    /** Reports a solution of the given makespan, built on demand by the given supplier if a listener needs it. */
+    public synchronized void improved(long iteration, int makespan, Supplier<Optional<Schedule>> solution) {
+        if(makespan >= best) {
+            return;
+        }
+        best = makespan;
+        SolverMetrics.improvement(solver, instance, iteration, makespan);
+        if(listener != SolverListener.NONE) {
+            listener.improved(new SolverListener.Incumbent(solver, instance, System.nanoTime() - start, iteration,
+                    makespan, solution));
+        }
+    }
+
+    /** Reports the given solution, if any. */
+    public void improved(long iteration, Optional<Schedule> schedule) {
+        schedule.ifPresent(s -> improved(iteration, s.makespan(), () -> schedule));
+    }
+
+    /** Best makespan reported so far, Integer.MAX_VALUE if none. */
+    public synchronized int best() {
+        return best;
+    }
+}
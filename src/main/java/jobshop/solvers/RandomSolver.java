@@ -12,9 +12,20 @@ import java.util.Random;
  */
 public class RandomSolver implements Solver {
 
+    final long seed;
+
+    public RandomSolver() {
+        this(0);
+    }
+
+    /** @param seed Seed of the random number generator used to shuffle the solutions. */
+    public RandomSolver(long seed) {
+        this.seed = seed;
+    }
+
     @Override
-    public Result solve(Instance instance, long deadline) {
-        Random generator = new Random(0);
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        Random generator = new Random(seed);
 
         JobNumbers sol = new JobNumbers(instance);
 
@@ -26,20 +37,28 @@ public class RandomSolver implements Solver {
         }
         // best solution is currently the initial one
         Optional<Schedule> best = sol.toSchedule();
+        Progress progress = Progress.start(this, instance, listener);
+        progress.improved(0, best);
+        long iteration = 0;
+
+        int lowerBound = LowerBounds.of(instance);
 
-        // while we have some time left, generate new solutions by shuffling the current one
-        while(deadline - System.currentTimeMillis() > 1) {
+        // while we have some time left and the best solution is not proved optimal,
+        // generate new solutions by shuffling the current one
+        while(deadline - System.currentTimeMillis() > 1 && best.get().makespan() > lowerBound) {
             shuffleArray(sol.jobs, generator);
+            iteration++;
             Optional<Schedule> candidate = sol.toSchedule();
             if(candidate.isPresent()) {
                 if (best.isEmpty() || candidate.get().makespan() < best.get().makespan()) {
                     best = candidate;
+                    progress.improved(iteration, best);
                 }
             }
         }
 
 
-        return new Result(instance, best, Result.ExitCause.Timeout);
+        return Result.withLowerBound(instance, best, Result.ExitCause.Timeout, lowerBound);
     }
 
     /** Simple Fisher–Yates array shuffling */
@@ -0,0 +1,223 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import jobshop.solvers.neighborhood.Neighbor;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.Nowicki;
+
+import java.util.List;
+import java.util.Random;
+
+/** Reactive taboo search (Battiti and Tecchiolli).
+ *
+ * Every visited solution is fingerprinted by the Zobrist hash of its resource order, that is updated in constant time
+ * on each swap. The taboo tenure is not a fixed parameter but reacts to the search:
+ *  - it is lengthened each time an already visited solution is reached again,
+ *  - it is shortened when no solution was revisited for a while, or when the current solution keeps improving,
+ *  - when some solutions have been visited too often, the search is considered trapped and escapes through a
+ *    random walk on the critical path.
+ */
+public class ReactiveTabooSolver implements Solver {
+
+    final Neighborhood<ResourceOrder> neighborhood;
+    final Solver baseSolver;
+    final long seed;
+
+    /** Bounds of the taboo tenure. */
+    static final int MIN_TENURE = 2;
+    static final int INITIAL_TENURE = 10;
+
+    /** Number of visits of a same solution above which it is considered as part of a cycle. */
+    static final int REPETITIONS = 3;
+    /** Number of solutions in a cycle that triggers an escape. */
+    static final int CHAOTIC = 3;
+    /** Number of consecutive improving moves after which the tenure is shortened. */
+    static final int IMPROVING_STREAK = 3;
+    /** Maximum number of fingerprints kept in memory before the history is reset. */
+    static final int MAX_HISTORY = 1 << 20;
+
+    /** Used to escape from attractors by a random walk on the critical path. */
+    private final Nowicki nowicki = new Nowicki();
+
+    /** Creates a new reactive taboo solver.
+     *
+     * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
+     * @param baseSolver A solver to provide the initial solution.
+     * @param seed Seed of the random number generator used for escapes.
+     */
+    public ReactiveTabooSolver(Neighborhood<ResourceOrder> neighborhood, Solver baseSolver, long seed) {
+        this.neighborhood = neighborhood;
+        this.baseSolver = baseSolver;
+        this.seed = seed;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        Random generator = new Random(seed);
+        int numOperations = instance.numJobs * instance.numTasks;
+        int maxTenure = Math.max(INITIAL_TENURE, numOperations / 2);
+
+        // for each pair of operations, the iteration until which exchanging them is forbidden
+        TabooMemory taboo = TabooMemory.create(numOperations, INITIAL_TENURE);
+
+        Result res = baseSolver.solve(instance, deadline);
+        ResourceOrder ro = new ResourceOrder(res.schedule.get());
+        TranspositionCache cache = TranspositionCache.of(instance);
+        int makespan = cache.makespan(ro);
+
+        ResourceOrder bestRO = ro.snapshot();
+        int bestMakespan = makespan;
+        int lowerBound = LowerBounds.of(instance);
+        Progress progress = Progress.start(this, instance, listener);
+        progress.improved(0, res.schedule);
+
+        // for each visited fingerprint: last iteration at which it was visited, number of visits
+        VisitHistory history = new VisitHistory(MAX_HISTORY);
+        Tenure tenure = new Tenure(maxTenure);
+
+        int iter = 0;
+        while(deadline - System.currentTimeMillis() > 1 && bestMakespan > lowerBound) {
+            ++iter;
+
+            // react to the (possible) revisit of the current solution
+            int visits = history.visit(ro.zobristHash(), iter);
+            if(tenure.visit(visits, history.cycleLength(), iter)) {
+                // trapped in an attractor: escape and forget about the past
+                history.clear();
+                nowicki.randomWalk(ro, 1 + (int) (tenure.averageCycle / 2), generator);
+                makespan = cache.makespan(ro);
+                continue;
+            }
+
+            List<Neighbor<ResourceOrder>> neighbors = neighborhood.generateNeighbors(ro);
+            if(neighbors.isEmpty()) {
+                return Result.withLowerBound(instance, bestRO.toSchedule(), Result.ExitCause.Blocked, lowerBound);
+            }
+
+            Nowicki.Swap best = null;
+            int bestNeighborMakespan = Integer.MAX_VALUE;
+            Nowicki.Swap leastTaboo = null;
+            int leastTabooExpiry = Integer.MAX_VALUE;
+            for(Neighbor<ResourceOrder> neighbor : neighbors) {
+                Nowicki.Swap swap = (Nowicki.Swap) neighbor;
+                swap.applyOn(ro);
+                int newMakespan = cache.makespan(ro);
+                swap.undoApplyOn(ro);
+
+                long tabooStart = SolverMetrics.start();
+                int expiry = tabooExpiry(taboo, ro, swap, instance);
+                SolverMetrics.stop(SolverMetrics.Phase.TABOO, tabooStart);
+                boolean forbidden = expiry > iter;
+                // a forbidden move is still allowed if it leads to a new best solution (aspiration)
+                if((!forbidden || newMakespan < bestMakespan) && newMakespan < bestNeighborMakespan) {
+                    bestNeighborMakespan = newMakespan;
+                    best = swap;
+                }
+                if(expiry < leastTabooExpiry) {
+                    leastTabooExpiry = expiry;
+                    leastTaboo = swap;
+                }
+            }
+            if(best == null) {
+                // all moves are forbidden, take the one that will be allowed again first
+                best = leastTaboo;
+                best.applyOn(ro);
+                bestNeighborMakespan = cache.makespan(ro);
+                best.undoApplyOn(ro);
+            }
+
+            // forbid the exchange of the two tasks, then move
+            long tabooStart = SolverMetrics.start();
+            forbid(taboo, ro, best, instance, iter, iter + tenure.iterations());
+            SolverMetrics.stop(SolverMetrics.Phase.TABOO, tabooStart);
+            best.applyOn(ro);
+            SolverMetrics.iteration(this, instance, iter, bestNeighborMakespan);
+
+            tenure.moved(bestNeighborMakespan < makespan);
+            makespan = bestNeighborMakespan;
+
+            if(makespan < bestMakespan) {
+                bestMakespan = makespan;
+                bestRO = ro.snapshot();
+                progress.improved(iter, makespan, bestRO::toSchedule);
+            }
+        }
+
+        return Result.withLowerBound(instance, bestRO.toSchedule(), Result.ExitCause.Timeout, lowerBound);
+    }
+
+    /** Taboo tenure, that reacts to the visits of the search. */
+    static final class Tenure {
+        private final int maxTenure;
+        private double tenure = INITIAL_TENURE;
+        /** Moving average of the length of the cycles met by the search. */
+        double averageCycle = 0;
+        private int lastChange = 0;
+        private int chaotic = 0;
+        private int improvingStreak = 0;
+
+        Tenure(int maxTenure) {
+            this.maxTenure = maxTenure;
+        }
+
+        /** Reacts to the visit of a solution at the given iteration: lengthens the tenure if it was visited before in
+         * a short cycle, shortens it if no solution was revisited for longer than the average cycle.
+         * @param visits Number of visits of the solution, this one included.
+         * @param cycleLength Iterations elapsed since its previous visit.
+         * @return true if the search is trapped and must escape, in which case the tenure is reset. */
+        boolean visit(int visits, int cycleLength, int iteration) {
+            if(visits > 1) {
+                if(visits > REPETITIONS && ++chaotic > CHAOTIC) {
+                    chaotic = 0;
+                    tenure = INITIAL_TENURE;
+                    lastChange = iteration;
+                    return true;
+                }
+                if(cycleLength < 2 * maxTenure) {
+                    averageCycle = 0.1 * cycleLength + 0.9 * averageCycle;
+                    tenure = Math.min(maxTenure, tenure * 1.1 + 1);
+                    lastChange = iteration;
+                }
+            } else if(iteration - lastChange > averageCycle) {
+                tenure = Math.max(MIN_TENURE, tenure * 0.9);
+                lastChange = iteration;
+            }
+            return false;
+        }
+
+        /** Reacts to a move: shortens the tenure after IMPROVING_STREAK consecutive improving moves. */
+        void moved(boolean improving) {
+            if(!improving) {
+                improvingStreak = 0;
+            } else if(++improvingStreak >= IMPROVING_STREAK) {
+                tenure = Math.max(MIN_TENURE, tenure * 0.9);
+                improvingStreak = 0;
+            }
+        }
+
+        /** Number of iterations during which a move is forbidden. */
+        int iterations() {
+            return (int) Math.round(tenure);
+        }
+    }
+
+    private static int operationIndex(Task t, Instance instance) {
+        return t.job * instance.numTasks + t.task;
+    }
+
+    private static void forbid(TabooMemory taboo, ResourceOrder ro, Nowicki.Swap swap, Instance instance, int iter, int until) {
+        int t1 = operationIndex(ro.getTaskOfMachine(swap.machine, swap.t1), instance);
+        int t2 = operationIndex(ro.getTaskOfMachine(swap.machine, swap.t2), instance);
+        taboo.forbid(t1, t2, iter, until);
+    }
+
+    private static int tabooExpiry(TabooMemory taboo, ResourceOrder ro, Nowicki.Swap swap, Instance instance) {
+        int t1 = operationIndex(ro.getTaskOfMachine(swap.machine, swap.t1), instance);
+        int t2 = operationIndex(ro.getTaskOfMachine(swap.machine, swap.t2), instance);
+        return taboo.expiry(t1, t2);
+    }
+}
@@ -0,0 +1,241 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.Schedule;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/** Rolling horizon decomposition for very large instances.
+ *
+ * The schedule is built from left to right by successive windows along the time axis. A reference solution of the
+ * whole instance is first built by a greedy solver: a window is made of the next operations not scheduled yet, in the
+ * order of their start times in this reference. As the reference starts the tasks of a job in order, a window holds a
+ * consecutive range of tasks of each of its jobs: the sub-instance of these ranges (see Instance.subInstance) is
+ * solved by an inner solver, given the end time of the last scheduled task of each job (job ready time) and of each
+ * machine (machine release time).
+ *
+ * Only the operations that start before a time horizon in the solution of the window are committed: the ones that
+ * start in the first (1 - overlap) fraction of its operations. The other operations are solved again as part of the
+ * next window, so that consecutive windows overlap. Committed operations are inserted in the schedule in the order of
+ * their start times, each one as early as possible: in the first idle interval of its machine that is long enough,
+ * and after the previous task of its job. The idle intervals left between the operations of a window can so be used
+ * by the operations of the next ones.
+ *
+ * Tasks outside of a window are kept at the beginning of the jobs of its sub-instance with a null duration, as every
+ * job must visit every machine: the cost of each move of the inner solver depends on the number of jobs of the window,
+ * not on the size of the instance. The reference solution, the boundary state and the schedule still take memory
+ * linear in the size of the instance. If the decomposition does not improve on the reference solution, the reference
+ * is returned.
+ */
+public class RollingHorizonSolver implements Solver {
+
+    final Solver innerSolver;
+    /** Maximum number of operations in a window. */
+    final int windowOperations;
+    /** Fraction of the operations of a window that are not committed and solved again in the next one. */
+    final double overlap;
+    /** Solver of the reference solution, which gives the order in which operations enter windows. */
+    final Solver referenceSolver = new GreedySolver(GreedySolver.Priority.EST_LRPT);
+
+    /** Creates a new rolling horizon solver.
+     *
+     * @param innerSolver Solver used on each window.
+     * @param windowOperations Maximum number of operations in a window.
+     * @param overlap Fraction, between 0 and 1, of the operations of a window that are solved again in the next window.
+     */
+    public RollingHorizonSolver(Solver innerSolver, int windowOperations, double overlap) {
+        this.innerSolver = innerSolver;
+        this.windowOperations = windowOperations;
+        this.overlap = overlap;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        int n = instance.numJobs;
+        int numTasks = instance.numTasks;
+        int total = n * numTasks;
+        Progress progress = Progress.start(this, instance, listener);
+        int lowerBound = LowerBounds.of(instance);
+
+        Schedule reference = referenceSolver.solve(instance, deadline).schedule.get();
+        progress.improved(0, Optional.of(reference));
+        if(reference.makespan() <= lowerBound) {
+            return Result.withLowerBound(instance, Optional.of(reference), Result.ExitCause.ProvedOptimal, lowerBound);
+        }
+        // all operations (job * numTasks + task) by increasing start time in the reference, then by job and task
+        long[] order = new long[total];
+        for(int j = 0; j < n; ++j) {
+            for(int t = 0; t < numTasks; ++t) {
+                order[j * numTasks + t] = (long) reference.startTime(j, t) << 32 | (j * numTasks + t);
+            }
+        }
+        Arrays.sort(order);
+
+        // boundary state
+        int[] doneTasks = new int[n];
+        int[] jobReady = new int[n];
+        Timeline[] machines = new Timeline[instance.numMachines];
+        int[] machineReleases = new int[instance.numMachines];
+        for(int m = 0; m < machines.length; ++m) {
+            machines[m] = new Timeline();
+        }
+
+        // buffers of the windows: number of tasks of each job in the window, and jobs of the window
+        int[] windowTasks = new int[n];
+        int[] windowJobs = new int[Math.min(n, windowOperations)];
+
+        Schedule result = new Schedule(instance);
+        int committed = 0;
+        int first = 0;
+        int window = 0;
+        while(committed < total) {
+            // the next operations not scheduled yet, in the order of the reference
+            while(isCommitted(order[first], numTasks, doneTasks)) {
+                first++;
+            }
+            int operations = 0;
+            int jobs = 0;
+            for(int k = first; k < total && operations < windowOperations; ++k) {
+                int op = (int) order[k];
+                int job = op / numTasks;
+                if(op % numTasks >= doneTasks[job]) {
+                    if(windowTasks[job] == 0) {
+                        windowJobs[jobs++] = job;
+                    }
+                    windowTasks[job]++;
+                    operations++;
+                }
+            }
+            int[] subJobs = Arrays.copyOf(windowJobs, jobs);
+            int[] done = new int[jobs];
+            int[] end = new int[jobs];
+            int[] ready = new int[jobs];
+            for(int i = 0; i < jobs; ++i) {
+                done[i] = doneTasks[subJobs[i]];
+                end[i] = done[i] + windowTasks[subJobs[i]];
+                ready[i] = jobReady[subJobs[i]];
+            }
+
+            // commit everything in the last window, otherwise the operations that start before the horizon
+            boolean last = operations == total - committed;
+            int toCommit = last ? operations : Math.max(1, (int) Math.round(operations * (1 - overlap)));
+
+            // the remaining time is shared in proportion of the number of committed operations
+            long now = System.currentTimeMillis();
+            long windowDeadline = now + Math.max(0, (deadline - now) * toCommit / (total - committed));
+
+            Instance sub = instance.subInstance(instance.name + "#" + window++, subJobs, done, end, ready, machineReleases);
+            Schedule schedule = innerSolver.solve(sub, windowDeadline).schedule.get();
+            // the sub-instance is never searched again
+            TranspositionCache.release(sub);
+
+            // operations of the window by increasing start time in its solution, then by job and task
+            long[] byStart = new long[operations];
+            int count = 0;
+            for(int i = 0; i < jobs; ++i) {
+                for(int t = done[i]; t < end[i]; ++t) {
+                    int start = schedule.startTime(i, t + numTasks - end[i]);
+                    byStart[count++] = (long) start << 32 | (subJobs[i] * numTasks + t);
+                }
+            }
+            Arrays.sort(byStart);
+            int horizon = last ? Integer.MAX_VALUE : Math.max((int) (byStart[toCommit - 1] >>> 32) + 1,
+                    (int) (byStart[Math.min(toCommit, operations - 1)] >>> 32));
+
+            for(long entry : byStart) {
+                if((int) (entry >>> 32) >= horizon) {
+                    break;
+                }
+                int op = (int) entry;
+                int job = op / numTasks;
+                int task = op % numTasks;
+                int machine = instance.machine(job, task);
+                int duration = instance.duration(job, task);
+                int start = machines[machine].insert(jobReady[job], duration);
+                result.setStartTime(job, task, start);
+                doneTasks[job] = task + 1;
+                jobReady[job] = start + duration;
+                machineReleases[machine] = machines[machine].end;
+                committed++;
+            }
+            for(int job : subJobs) {
+                windowTasks[job] = 0;
+            }
+        }
+
+        assert result.isValid() : "invalid schedule produced";
+        if(result.makespan() >= reference.makespan()) {
+            result = reference;
+        } else {
+            progress.improved(window, Optional.of(result));
+        }
+        Result.ExitCause cause = deadline - System.currentTimeMillis() > 1 ? Result.ExitCause.Blocked : Result.ExitCause.Timeout;
+        return Result.withLowerBound(instance, Optional.of(result), cause, lowerBound);
+    }
+
+    /** True if the given operation (job * numTasks + task, as stored in the order) is already scheduled. */
+    private static boolean isCommitted(long op, int numTasks, int[] doneTasks) {
+        int index = (int) op;
+        return index % numTasks < doneTasks[index / numTasks];
+    }
+
+    /** The operations scheduled on a machine, as the end of the last one and the idle intervals before it. */
+    private static final class Timeline {
+        /** End time of the last operation of the machine. */
+        int end = 0;
+        /** Idle intervals [gapStarts[i], gapEnds[i]) before the end of the machine, by increasing start. */
+        int[] gapStarts = new int[8];
+        int[] gapEnds = new int[8];
+        int gaps = 0;
+
+        /** Schedules an operation of the given duration as early as possible, not before the given date, and returns
+         * its start time. */
+        int insert(int ready, int duration) {
+            for(int g = 0; g < gaps; ++g) {
+                int start = Math.max(gapStarts[g], ready);
+                if(start + duration <= gapEnds[g]) {
+                    int gapEnd = gapEnds[g];
+                    // the gap is split into the idle intervals before and after the operation, if any
+                    if(start > gapStarts[g]) {
+                        gapEnds[g] = start;
+                        if(start + duration < gapEnd) {
+                            addGap(g + 1, start + duration, gapEnd);
+                        }
+                    } else if(start + duration < gapEnd) {
+                        gapStarts[g] = start + duration;
+                    } else {
+                        removeGap(g);
+                    }
+                    return start;
+                }
+            }
+            int start = Math.max(end, ready);
+            if(start > end) {
+                addGap(gaps, end, start);
+            }
+            end = start + duration;
+            return start;
+        }
+
+        private void addGap(int index, int start, int end) {
+            if(gaps == gapStarts.length) {
+                gapStarts = Arrays.copyOf(gapStarts, 2 * gaps);
+                gapEnds = Arrays.copyOf(gapEnds, 2 * gaps);
+            }
+            System.arraycopy(gapStarts, index, gapStarts, index + 1, gaps - index);
+            System.arraycopy(gapEnds, index, gapEnds, index + 1, gaps - index);
+            gapStarts[index] = start;
+            gapEnds[index] = end;
+            gaps++;
+        }
+
+        private void removeGap(int index) {
+            System.arraycopy(gapStarts, index + 1, gapStarts, index, gaps - index - 1);
+            System.arraycopy(gapEnds, index + 1, gapEnds, index, gaps - index - 1);
+            gaps--;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.encodings.Task;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/** Shifting bottleneck heuristic of Adams, Balas and Zawack.
+ *
+ * Machines are sequenced one at a time. At each step, the heads and tails of all tasks are computed by longest paths
+ * in the graph of the job orders and of the sequences of the machines already sequenced. Every machine that is not
+ * sequenced yet is then solved as a one-machine problem with heads and tails (Carlier's algorithm), in parallel. The
+ * machine with the largest value, the bottleneck, gets sequenced. Finally, the machines sequenced before are
+ * reoptimized one by one, given the sequences of all the others.
+ *
+ * In a one-machine problem, if there is a path from a task b to a task a, then r_a >= r_b + p_b and q_b >= p_a + q_a:
+ * Schrage's rule always puts b before a, so that the sequence it builds never creates a cycle. The sequence of
+ * Carlier's algorithm may, in which case Schrage's sequence is used instead.
+ */
+public class ShiftingBottleneckSolver implements Solver {
+
+    /** Maximum number of passes over the sequenced machines after each new bottleneck. */
+    final int reoptimizationRounds;
+    /** Maximum number of nodes explored by each run of Carlier's algorithm. */
+    final long nodeLimit;
+
+    /** Creates a new shifting bottleneck solver.
+     *
+     * @param reoptimizationRounds Maximum number of passes of reoptimization of the sequenced machines after each
+     *                             new bottleneck.
+     * @param nodeLimit Maximum number of nodes explored when solving a one-machine problem.
+     */
+    public ShiftingBottleneckSolver(int reoptimizationRounds, long nodeLimit) {
+        this.reoptimizationRounds = reoptimizationRounds;
+        this.nodeLimit = nodeLimit;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        Graph graph = new Graph(instance);
+        // for each machine, its jobs in order of processing, null if the machine is not sequenced yet
+        int[][] sequences = new int[instance.numMachines][];
+
+        for(int step = 0; step < instance.numMachines; ++step) {
+            graph.longestPaths(sequences);
+            boolean late = deadline - System.currentTimeMillis() <= 1;
+            long limit = late ? 0 : nodeLimit;
+
+            // solve all the one-machine problems of the machines that are not sequenced yet
+            int[][] candidates = IntStream.range(0, instance.numMachines).parallel()
+                    .mapToObj(m -> sequences[m] != null ? null : graph.oneMachine(m).sequence(limit))
+                    .toArray(int[][]::new);
+
+            int bottleneck = -1;
+            int bottleneckValue = -1;
+            for(int m = 0; m < instance.numMachines; ++m) {
+                if(candidates[m] != null) {
+                    int value = graph.oneMachine(m).value(candidates[m]);
+                    if(value > bottleneckValue) {
+                        bottleneckValue = value;
+                        bottleneck = m;
+                    }
+                }
+            }
+            sequence(graph, sequences, bottleneck, candidates[bottleneck]);
+
+            if(!late) {
+                reoptimize(graph, sequences, bottleneck, deadline);
+            }
+        }
+
+        ResourceOrder ro = new ResourceOrder(instance);
+        for(int m = 0; m < instance.numMachines; ++m) {
+            for(int job : sequences[m]) {
+                ro.addTaskToMachine(m, new Task(job, instance.task_with_machine(job, m)));
+            }
+        }
+        Optional<Schedule> schedule = ro.toSchedule();
+        Progress.start(this, instance, listener).improved(0, schedule);
+        return Result.withLowerBound(instance, schedule, Result.ExitCause.Blocked, LowerBounds.of(instance));
+    }
+
+    /** Sequences machine m, falling back to Schrage's sequence if the given one creates a cycle.
+     * The heads and tails of the graph must be the ones computed without machine m.
+     *
+     * With tasks of null duration, Schrage's sequence itself may create a cycle. The jobs are then sequenced in the
+     * topological order of the graph without machine m, which cannot. */
+    private static void sequence(Graph graph, int[][] sequences, int m, int[] sequence) {
+        OneMachine problem = graph.oneMachine(m);
+        sequences[m] = sequence;
+        if(graph.longestPaths(sequences) < 0) {
+            sequences[m] = Carlier.schrageSequence(problem.r, problem.p, problem.q);
+            if(graph.longestPaths(sequences) < 0) {
+                sequences[m] = null;
+                graph.longestPaths(sequences);
+                sequences[m] = graph.topologicalSequence(m);
+                graph.longestPaths(sequences);
+            }
+        }
+    }
+
+    /** Reoptimizes each sequenced machine but the last bottleneck given the sequences of the others, and keeps the new
+     * sequence if it does not increase the makespan. Stops after a pass without improvement. */
+    private void reoptimize(Graph graph, int[][] sequences, int bottleneck, long deadline) {
+        int makespan = graph.longestPaths(sequences);
+        for(int round = 0; round < reoptimizationRounds; ++round) {
+            boolean improved = false;
+            for(int m = 0; m < sequences.length; ++m) {
+                if(m == bottleneck || sequences[m] == null || deadline - System.currentTimeMillis() <= 1) {
+                    continue;
+                }
+                int[] previous = sequences[m];
+                sequences[m] = null;
+                graph.longestPaths(sequences);
+                sequence(graph, sequences, m, graph.oneMachine(m).sequence(nodeLimit));
+                int newMakespan = graph.longestPaths(sequences);
+                if(newMakespan < 0 || newMakespan > makespan) {
+                    sequences[m] = previous;
+                } else {
+                    improved |= newMakespan < makespan;
+                    makespan = newMakespan;
+                }
+            }
+            if(!improved) {
+                break;
+            }
+        }
+        graph.longestPaths(sequences);
+    }
+
+    /** A one-machine problem: heads, durations and tails of the tasks of a machine, indexed by job. */
+    static final class OneMachine {
+        final int[] r;
+        final int[] p;
+        final int[] q;
+
+        OneMachine(int[] r, int[] p, int[] q) {
+            this.r = r;
+            this.p = p;
+            this.q = q;
+        }
+
+        int[] sequence(long nodeLimit) {
+            return Carlier.sequence(r, p, q, nodeLimit);
+        }
+
+        int value(int[] sequence) {
+            return Carlier.value(sequence, r, p, q);
+        }
+    }
+
+    /** The disjunctive graph of the instance, with the heads and tails of the last call to longestPaths.
+     * Tasks are identified by job * numTasks + task. */
+    static final class Graph {
+        final Instance instance;
+        final int numJobs;
+        final int numTasks;
+        final int size;
+        final int[] duration;
+        /** Release date of each task. */
+        final int[] release;
+        /** For each machine and job, the task of the job executing on the machine. */
+        final int[] taskOnMachine;
+
+        final int[] heads;
+        final int[] tails;
+        /** Successor of each task on its machine, -1 if none. */
+        private final int[] machineSuccessor;
+        private final int[] predecessors;
+        private final int[] order;
+
+        Graph(Instance instance) {
+            this.instance = instance;
+            this.numJobs = instance.numJobs;
+            this.numTasks = instance.numTasks;
+            this.size = numJobs * numTasks;
+            this.duration = new int[size];
+            this.release = new int[size];
+            this.taskOnMachine = new int[instance.numMachines * numJobs];
+            for(int j = 0; j < numJobs; ++j) {
+                for(int t = 0; t < numTasks; ++t) {
+                    duration[j * numTasks + t] = instance.duration(j, t);
+                    release[j * numTasks + t] = instance.release(j, t);
+                    taskOnMachine[instance.machine(j, t) * numJobs + j] = t;
+                }
+            }
+            this.heads = new int[size];
+            this.tails = new int[size];
+            this.machineSuccessor = new int[size];
+            this.predecessors = new int[size];
+            this.order = new int[size];
+        }
+
+        int task(int m, int job) {
+            return job * numTasks + taskOnMachine[m * numJobs + job];
+        }
+
+        /** Jobs of machine m in the topological order of the last call to longestPaths. */
+        int[] topologicalSequence(int m) {
+            int[] rank = new int[size];
+            for(int i = 0; i < size; ++i) {
+                rank[order[i]] = i;
+            }
+            return IntStream.range(0, numJobs).boxed()
+                    .sorted(Comparator.comparingInt(j -> rank[task(m, j)]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        /** The one-machine problem of machine m with the current heads and tails. */
+        OneMachine oneMachine(int m) {
+            int[] r = new int[numJobs];
+            int[] p = new int[numJobs];
+            int[] q = new int[numJobs];
+            for(int j = 0; j < numJobs; ++j) {
+                int t = task(m, j);
+                r[j] = heads[t];
+                p[j] = duration[t];
+                q[j] = tails[t];
+            }
+            return new OneMachine(r, p, q);
+        }
+
+        /** Computes heads and tails (excluding the task itself) in the graph of the job orders and of the given
+         * machine sequences.
+         * @return the longest path of the graph, -1 if it contains a cycle. */
+        int longestPaths(int[][] sequences) {
+            Arrays.fill(machineSuccessor, -1);
+            Arrays.fill(predecessors, 0);
+            for(int m = 0; m < sequences.length; ++m) {
+                if(sequences[m] == null) {
+                    continue;
+                }
+                for(int i = 0; i + 1 < numJobs; ++i) {
+                    int s = task(m, sequences[m][i + 1]);
+                    machineSuccessor[task(m, sequences[m][i])] = s;
+                    predecessors[s]++;
+                }
+            }
+
+            int head = 0;
+            int tail = 0;
+            for(int t = 0; t < size; ++t) {
+                if(t % numTasks != 0) {
+                    predecessors[t]++;
+                }
+                if(predecessors[t] == 0) {
+                    order[tail++] = t;
+                }
+            }
+            System.arraycopy(release, 0, heads, 0, size);
+            while(head < tail) {
+                int t = order[head++];
+                int end = heads[t] + duration[t];
+                if((t + 1) % numTasks != 0) {
+                    heads[t + 1] = Math.max(heads[t + 1], end);
+                    if(--predecessors[t + 1] == 0) {
+                        order[tail++] = t + 1;
+                    }
+                }
+                int s = machineSuccessor[t];
+                if(s >= 0) {
+                    heads[s] = Math.max(heads[s], end);
+                    if(--predecessors[s] == 0) {
+                        order[tail++] = s;
+                    }
+                }
+            }
+            if(tail < size) {
+                return -1;
+            }
+
+            int makespan = 0;
+            Arrays.fill(tails, 0);
+            for(int i = size - 1; i >= 0; --i) {
+                int t = order[i];
+                if((t + 1) % numTasks != 0) {
+                    tails[t] = Math.max(tails[t], duration[t + 1] + tails[t + 1]);
+                }
+                int s = machineSuccessor[t];
+                if(s >= 0) {
+                    tails[t] = Math.max(tails[t], duration[s] + tails[s]);
+                }
+                makespan = Math.max(makespan, heads[t] + duration[t] + tails[t]);
+            }
+            return makespan;
+        }
+    }
+}
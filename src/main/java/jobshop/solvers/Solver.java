@@ -2,8 +2,12 @@ package jobshop.solvers;
 
 import jobshop.Instance;
 import jobshop.Result;
+import jobshop.solvers.neighborhood.AdjacentSwaps;
+import jobshop.solvers.neighborhood.BlockSwaps;
 import jobshop.solvers.neighborhood.Nowicki;
 
+import java.util.List;
+
 /** Common interface that must implemented by all solvers. */
 public interface Solver {
 
@@ -12,23 +16,54 @@ public interface Solver {
      * @param instance Jobshop instance that should be solved.
      * @param deadline Absolute time at which the solver should have returned a solution.
      *                 This time is in milliseconds and can be compared with System.currentTimeMilliseconds()
+     * @param listener Listener notified of each solution better than the previous ones found by this run (see
+     *                 Progress).
      * @return A Result containing the solution found and an explanation of why the solver exited.
      */
-    Result solve(Instance instance, long deadline);
+    Result solve(Instance instance, long deadline, SolverListener listener);
+
+    /** Look for a solution until blocked or a deadline has been met, without reporting the intermediate solutions. */
+    default Result solve(Instance instance, long deadline) {
+        return solve(instance, deadline, SolverListener.NONE);
+    }
 
     /** Static factory method to create a new solver based on its name. */
     static Solver getSolver(String name) {
+        return getSolver(name, 0);
+    }
+
+    /** Static factory method to create a new solver based on its name, whose random number generator (if it uses
+     * one) starts from the given seed. */
+    static Solver getSolver(String name, long seed) {
         switch (name) {
             case "basic":       return new BasicSolver();
-            case "random":      return new RandomSolver();
+            case "random":      return new RandomSolver(seed);
             case "spt":         return new GreedySolver(GreedySolver.Priority.SPT);
             case "lrpt":        return new GreedySolver(GreedySolver.Priority.LRPT);
             case "est_spt":     return new GreedySolver(GreedySolver.Priority.EST_SPT);
             case "est_lrpt":    return new GreedySolver(GreedySolver.Priority.EST_LRPT);
             case "descent":     return new DescentSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.SPT));
             case "taboo":       return new TabooSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.SPT),5000, 10);
+            case "sb":          return new ShiftingBottleneckSolver(3, 1000);
+            case "taboo_sb":    return new TabooSolver(new Nowicki(), new ShiftingBottleneckSolver(3, 1000), 5000, 10);
+            case "taboo_flip":  return new TabooSolver(new Nowicki(), new ShiftingBottleneckSolver(3, 1000), 5000, 10, 1000);
+            case "tsab":        return new TSABSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT), 500, 8, 100);
+            case "bnb":         return new BranchAndBoundSolver(new TSABSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT), 500, 8, 100), 0.1);
+            case "lns":         return new LargeNeighborhoodSearchSolver(new ShiftingBottleneckSolver(3, 1000), 6, 200, seed);
+            case "rh":          return new RollingHorizonSolver(new TSABSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT), 500, 8, 100), 1000, 0.75);
+            case "aco":         return new AntColonySolver(GreedySolver.Priority.EST_LRPT, 16, 0.1, 2, seed);
+            case "pr":          return new PathRelinkingSolver(new GreedySolver(GreedySolver.Priority.EST_LRPT), 8, 100, seed);
+            case "rts":         return new ReactiveTabooSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT), seed);
+            case "ils":         return new IteratedLocalSearchSolver(List.of(new Nowicki(), new AdjacentSwaps(), new BlockSwaps()),
+                                        new GreedySolver(GreedySolver.Priority.EST_LRPT), seed);
 
-            default: throw new RuntimeException("Unknown solver: "+ name);
+            default:
+                // "bi_" followed by the name of any solver: the same solver on both orientations of the instance
+                if(name.startsWith("bi_")) {
+                    String solver = name.substring("bi_".length());
+                    return new BidirectionalSolver(getSolver(solver, seed), getSolver(solver, seed));
+                }
+                throw new RuntimeException("Unknown solver: "+ name);
         }
     }
 
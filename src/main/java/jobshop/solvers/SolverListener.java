@@ -0,0 +1,50 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Schedule;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/** Listener of the progress of a solver, notified each time the solver finds a better solution (see Progress).
+ *
+ * A listener is given to a single run of a solver, as an argument of Solver.solve(), and is called synchronously by
+ * the thread that found the solution: it should return quickly, and must not keep the Incumbent after returning.
+ */
+@FunctionalInterface
+public interface SolverListener {
+
+    /** Listener of the runs whose intermediate solutions are not needed. */
+    SolverListener NONE = incumbent -> {};
+
+    /** Called each time the solver finds a solution better than all the previous ones of the current solve. */
+    void improved(Incumbent incumbent);
+
+    /** A solution better than all the previous ones found by a solver. */
+    final class Incumbent {
+        public final Solver solver;
+        public final Instance instance;
+        /** Time elapsed since the beginning of the solve, in nanoseconds. */
+        public final long elapsedNanos;
+        /** Iteration of the solver at which the solution was found (0 for the initial solution). */
+        public final long iteration;
+        public final int makespan;
+        private final Supplier<Optional<Schedule>> solution;
+
+        Incumbent(Solver solver, Instance instance, long elapsedNanos, long iteration, int makespan,
+                  Supplier<Optional<Schedule>> solution) {
+            this.solver = solver;
+            this.instance = instance;
+            this.elapsedNanos = elapsedNanos;
+            this.iteration = iteration;
+            this.makespan = makespan;
+            this.solution = solution;
+        }
+
+        /** The solution itself, computed on demand: this is only valid until the listener returns, as the solver
+         * goes on modifying its current solution afterwards. */
+        public Optional<Schedule> schedule() {
+            return solution.get();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package jobshop.solvers;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jobshop.Instance;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters and timers of the work done by the solvers, shared by all solvers and threads.
+ *
+ * Counters are always updated, with LongAdders that stay cheap when parallel solvers update them concurrently. Timers
+ * call System.nanoTime(), which costs about as much as some of the operations that are timed: they are only active
+ * once enabled by setTiming(). Phases may be nested: the decodes triggered while generating neighbors are counted both
+ * in DECODE and in NEIGHBORHOOD.
+ *
+ * Solvers also emit IterationEvent and ImprovementEvent to Java Flight Recorder, when a recording is running (e.g.
+ * with -XX:StartFlightRecording). The cost of an event is negligible when JFR is not recording.
+ */
+public final class SolverMetrics {
+
+    public enum Counter {
+        /** Resource orders converted to schedules to evaluate them (transposition cache misses). */
+        DECODES,
+        /** Solutions evaluated through the transposition cache, neighbors included. */
+        EVALUATIONS,
+        /** Neighbors generated by the neighborhoods. */
+        NEIGHBORS,
+        /** Iterations of the local search solvers. */
+        ITERATIONS,
+        /** Iterations that improved the best solution. */
+        IMPROVEMENTS
+    }
+
+    public enum Phase {
+        /** Conversion of resource orders to schedules. */
+        DECODE,
+        /** Extraction of critical paths. */
+        CRITICAL_PATH,
+        /** Generation of the neighbors of a solution. */
+        NEIGHBORHOOD,
+        /** Updates and checks of taboo lists. */
+        TABOO
+    }
+
+    private static final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private static final LongAdder[] nanos = new LongAdder[Phase.values().length];
+    private static volatile boolean timing = false;
+
+    static {
+        for(int i = 0; i < counters.length; ++i) {
+            counters[i] = new LongAdder();
+        }
+        for(int i = 0; i < nanos.length; ++i) {
+            nanos[i] = new LongAdder();
+        }
+    }
+
+    private SolverMetrics() {}
+
+    /** Enables or disables the timers of the phases. */
+    public static void setTiming(boolean enabled) {
+        timing = enabled;
+    }
+
+    public static void count(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    public static void add(Counter counter, long amount) {
+        counters[counter.ordinal()].add(amount);
+    }
+
+    /** Starts timing a phase: the returned value must be given to stop(). */
+    public static long start() {
+        return timing ? System.nanoTime() : 0;
+    }
+
+    /** Stops timing the given phase, started at the given time by start(). */
+    public static void stop(Phase phase, long start) {
+        if(timing) {
+            nanos[phase.ordinal()].add(System.nanoTime() - start);
+        }
+    }
+
+    /** Records an iteration of a solver, that moved to a solution of the given makespan. */
+    public static void iteration(Solver solver, Instance instance, long iteration, int makespan) {
+        counters[Counter.ITERATIONS.ordinal()].increment();
+        IterationEvent event = new IterationEvent();
+        if(event.shouldCommit()) {
+            event.solver = solver.getClass().getSimpleName();
+            event.instance = instance.name;
+            event.iteration = iteration;
+            event.makespan = makespan;
+            event.commit();
+        }
+    }
+
+    /** Records an improvement of the best solution of a solver, to the given makespan. */
+    public static void improvement(Solver solver, Instance instance, long iteration, int makespan) {
+        counters[Counter.IMPROVEMENTS.ordinal()].increment();
+        ImprovementEvent event = new ImprovementEvent();
+        if(event.shouldCommit()) {
+            event.solver = solver.getClass().getSimpleName();
+            event.instance = instance.name;
+            event.iteration = iteration;
+            event.makespan = makespan;
+            event.commit();
+        }
+    }
+
+    /** Current values of all counters and timers. */
+    public static Snapshot snapshot() {
+        long[] counts = new long[counters.length];
+        for(int i = 0; i < counts.length; ++i) {
+            counts[i] = counters[i].sum();
+        }
+        long[] times = new long[nanos.length];
+        for(int i = 0; i < times.length; ++i) {
+            times[i] = nanos[i].sum();
+        }
+        return new Snapshot(counts, times);
+    }
+
+    /** Resets all counters and timers to zero. */
+    public static void reset() {
+        for(LongAdder counter : counters) {
+            counter.reset();
+        }
+        for(LongAdder time : nanos) {
+            time.reset();
+        }
+    }
+
+    /** Values of the counters and timers at some point. */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long[] nanos;
+
+        private Snapshot(long[] counts, long[] nanos) {
+            this.counts = counts;
+            this.nanos = nanos;
+        }
+
+        public long count(Counter counter) {
+            return counts[counter.ordinal()];
+        }
+
+        /** Time spent in the given phase, in milliseconds (0 unless timing is enabled). */
+        public double millis(Phase phase) {
+            return nanos[phase.ordinal()] / 1e6;
+        }
+    }
+
+    @Name("jobshop.Iteration")
+    @Label("Solver Iteration")
+    @Description("An iteration of a local search solver")
+    @Category("Jobshop")
+    @StackTrace(false)
+    public static final class IterationEvent extends Event {
+        @Label("Solver")
+        String solver;
+        @Label("Instance")
+        String instance;
+        @Label("Iteration")
+        long iteration;
+        @Label("Makespan")
+        int makespan;
+    }
+
+    @Name("jobshop.Improvement")
+    @Label("Solver Improvement")
+    @Description("An improvement of the best solution of a solver")
+    @Category("Jobshop")
+    @StackTrace(false)
+    public static final class ImprovementEvent extends Event {
+        @Label("Solver")
+        String solver;
+        @Label("Instance")
+        String instance;
+        @Label("Iteration")
+        long iteration;
+        @Label("Makespan")
+        int makespan;
+    }
+}
@@ -0,0 +1,286 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import jobshop.solvers.neighborhood.Neighbor;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.Nowicki;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/** Taboo search with back jump tracking (TSAB) of Nowicki and Smutnicki.
+ *
+ * Each time a new best solution is found, it is pushed on a bounded list of elite solutions together with the
+ * taboo list at that point and the moves that were not explored from it. When the search stalls (too many iterations
+ * without improvement or a cycle detected in the sequence of makespans), it jumps back to the most recent elite
+ * solution and continues with one of its unexplored moves.
+ *
+ * Elite solutions are stored as primitive arrays so that many back jump points can be kept even on large instances.
+ */
+public class TSABSolver extends TabooSolver {
+
+    /** Maximum number of back jump points kept in memory. */
+    final int maxElite;
+
+    /** Smallest and largest periods of a cycle that is detected in the sequence of makespans.
+     * A period of one is ignored, as it would only detect plateaus of equal makespans. */
+    static final int MIN_CYCLE_PERIOD = 2;
+    static final int MAX_CYCLE_PERIOD = 100;
+
+    /** Number of repetitions of a period before it is considered as a cycle. */
+    static final int CYCLE_REPEATS = 3;
+
+    /** A back jump point: an elite solution with the search state at the time it was found. */
+    static final class Elite {
+        /** Jobs on each machine (see ResourceOrder.saveJobs) */
+        final int[] jobs;
+        final int makespan;
+        /** Content of the taboo list (pairs of operations) and position of its oldest element. */
+        final int[] taboo;
+        final int tabooHead;
+        /** Unexplored moves, encoded by `unexploredMoves`, from the most to the least promising. */
+        final long[] moves;
+        /** Index of the next move to explore in `moves`. */
+        int nextMove = 0;
+
+        Elite(int[] jobs, int makespan, int[] taboo, int tabooHead, long[] moves) {
+            this.jobs = jobs;
+            this.makespan = makespan;
+            this.taboo = taboo;
+            this.tabooHead = tabooHead;
+            this.moves = moves;
+        }
+    }
+
+    /** Creates a new TSAB solver.
+     *
+     * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
+     * @param baseSolver A solver to provide the initial solution.
+     * @param maxIter Number of iterations without improvement after which the search jumps back to an elite solution.
+     * @param tabooTime Length of the taboo list.
+     * @param maxElite Maximum number of elite solutions kept for back jumps.
+     */
+    public TSABSolver(Neighborhood<ResourceOrder> neighborhood, Solver baseSolver, int maxIter, int tabooTime, int maxElite) {
+        super(neighborhood, baseSolver, maxIter, tabooTime);
+        this.maxElite = maxElite;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
+        int size = instance.numMachines * instance.numJobs;
+
+        Result res = baseSolver.solve(instance, deadline);
+        ResourceOrder ro = new ResourceOrder(res.schedule.get());
+        TranspositionCache cache = TranspositionCache.of(instance);
+        int makespan = cache.makespan(ro);
+
+        int[] bestJobs = new int[size];
+        ro.saveJobs(bestJobs);
+        int bestMakespan = makespan;
+        int lowerBound = LowerBounds.of(instance);
+        Progress progress = Progress.start(this, instance, listener);
+        progress.improved(0, res.schedule);
+
+        // taboo list: a ring of pairs of operations that should not be exchanged again (-1 for empty slots)
+        int[] taboo = new int[2 * tabooTime];
+        Arrays.fill(taboo, -1);
+        int tabooHead = 0;
+
+        // most recent elite solution first
+        ArrayDeque<Elite> elites = new ArrayDeque<>();
+        boolean newBest = true;
+
+        // last makespans, for cycle detection
+        int[] history = new int[(CYCLE_REPEATS + 1) * MAX_CYCLE_PERIOD];
+        int historySize = 0;
+
+        int withoutImprovement = 0;
+        long iteration = 0;
+
+        while(deadline - System.currentTimeMillis() > 1 && bestMakespan > lowerBound) {
+            List<Neighbor<ResourceOrder>> neighbors = neighborhood.generateNeighbors(ro);
+            if(neighbors.isEmpty()) {
+                // no block on the critical path: the solution cannot be improved by any swap
+                break;
+            }
+
+            int[] makespans = new int[neighbors.size()];
+            for(int i = 0; i < neighbors.size(); ++i) {
+                neighbors.get(i).applyOn(ro);
+                makespans[i] = cache.makespan(ro);
+                neighbors.get(i).undoApplyOn(ro);
+            }
+
+            // best move that is either allowed or leads to a new best solution,
+            // or the move forbidden for the longest time if all moves are taboo
+            long tabooStart = SolverMetrics.start();
+            int chosen = -1;
+            int oldest = -1;
+            int oldestAge = -1;
+            for(int i = 0; i < neighbors.size(); ++i) {
+                int age = tabooAge(taboo, tabooHead, ro, (Nowicki.Swap) neighbors.get(i));
+                if((age < 0 || makespans[i] < bestMakespan) && (chosen < 0 || makespans[i] < makespans[chosen])) {
+                    chosen = i;
+                }
+                if(age > oldestAge) {
+                    oldestAge = age;
+                    oldest = i;
+                }
+            }
+            if(chosen < 0) {
+                chosen = oldest;
+            }
+            SolverMetrics.stop(SolverMetrics.Phase.TABOO, tabooStart);
+
+            if(newBest) {
+                // the current solution is the best one: save it with the moves that will not be explored from it
+                newBest = false;
+                long[] moves = unexploredMoves(neighbors, makespans, chosen, instance);
+                if(moves.length > 0) {
+                    int[] jobs = new int[size];
+                    ro.saveJobs(jobs);
+                    elites.addFirst(new Elite(jobs, makespan, taboo.clone(), tabooHead, moves));
+                    if(elites.size() > maxElite) {
+                        elites.removeLast();
+                    }
+                }
+            }
+
+            Nowicki.Swap move = (Nowicki.Swap) neighbors.get(chosen);
+            tabooHead = forbid(taboo, tabooHead, ro, move.machine, move.t1, move.t2);
+            move.applyOn(ro);
+            makespan = makespans[chosen];
+
+            history[historySize % history.length] = makespan;
+            historySize++;
+            SolverMetrics.iteration(this, instance, ++iteration, makespan);
+
+            if(makespan < bestMakespan) {
+                bestMakespan = makespan;
+                ro.saveJobs(bestJobs);
+                newBest = true;
+                withoutImprovement = 0;
+                progress.improved(iteration, makespan, ro::toSchedule);
+            } else {
+                withoutImprovement++;
+            }
+
+            if(withoutImprovement >= maxIter || hasCycle(history, historySize)) {
+                // the search stalls: back jump to the most recent elite solution with an unexplored move
+                if(elites.isEmpty()) {
+                    break;
+                }
+                Elite elite = elites.peekFirst();
+                tabooHead = jumpBack(elite, ro, taboo);
+                if(elite.nextMove == elite.moves.length) {
+                    elites.removeFirst();
+                }
+                makespan = cache.makespan(ro);
+
+                historySize = 0;
+                withoutImprovement = 0;
+                if(makespan < bestMakespan) {
+                    bestMakespan = makespan;
+                    ro.saveJobs(bestJobs);
+                    newBest = true;
+                    progress.improved(iteration, makespan, ro::toSchedule);
+                }
+            }
+        }
+
+        ro.restoreJobs(bestJobs);
+        Result.ExitCause cause = deadline - System.currentTimeMillis() > 1 ? Result.ExitCause.Blocked : Result.ExitCause.Timeout;
+        return Result.withLowerBound(instance, ro.toSchedule(), cause, lowerBound);
+    }
+
+    /** Moves other than `chosen`, sorted by increasing makespan and encoded as (machine * numJobs + t1) * numJobs + t2,
+     * in a long as numMachines * numJobs * numJobs exceeds the range of an int on large instances (e.g. 1000x20). */
+    private static long[] unexploredMoves(List<Neighbor<ResourceOrder>> neighbors, int[] makespans, int chosen, Instance instance) {
+        Integer[] order = new Integer[neighbors.size()];
+        for(int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(makespans[a], makespans[b]));
+
+        long[] moves = new long[neighbors.size() - 1];
+        int k = 0;
+        for(int i : order) {
+            if(i != chosen) {
+                Nowicki.Swap swap = (Nowicki.Swap) neighbors.get(i);
+                moves[k++] = encodeMove(swap.machine, swap.t1, swap.t2, instance.numJobs);
+            }
+        }
+        return moves;
+    }
+
+    static long encodeMove(int machine, int t1, int t2, int numJobs) {
+        return ((long) machine * numJobs + t1) * numJobs + t2;
+    }
+
+    /** Back jump to an elite solution: restores its resource order in `ro` and its taboo list in `taboo`, then applies
+     * its next unexplored move, which is made taboo.
+     * @return the position of the oldest element of the taboo list after the move. */
+    static int jumpBack(Elite elite, ResourceOrder ro, int[] taboo) {
+        long encoded = elite.moves[elite.nextMove++];
+        int numJobs = ro.instance.numJobs;
+        int machine = (int) (encoded / numJobs / numJobs);
+        int t1 = (int) (encoded / numJobs % numJobs);
+        int t2 = (int) (encoded % numJobs);
+
+        ro.restoreJobs(elite.jobs);
+        System.arraycopy(elite.taboo, 0, taboo, 0, taboo.length);
+        int head = forbid(taboo, elite.tabooHead, ro, machine, t1, t2);
+        ro.swapTasks(machine, t1, t2);
+        return head;
+    }
+
+    /** Adds the pair of tasks that are about to be exchanged to the taboo list, replacing its oldest element.
+     * @return the new position of the oldest element of the list. */
+    private static int forbid(int[] taboo, int head, ResourceOrder ro, int machine, int t1, int t2) {
+        taboo[2 * head] = operation(ro.getTaskOfMachine(machine, t1), ro.instance);
+        taboo[2 * head + 1] = operation(ro.getTaskOfMachine(machine, t2), ro.instance);
+        return (head + 1) % (taboo.length / 2);
+    }
+
+    /** Returns -1 if the swap is not taboo, otherwise how long ago it was made taboo (the larger, the older). */
+    private static int tabooAge(int[] taboo, int head, ResourceOrder ro, Nowicki.Swap swap) {
+        int a = operation(ro.getTaskOfMachine(swap.machine, swap.t1), ro.instance);
+        int b = operation(ro.getTaskOfMachine(swap.machine, swap.t2), ro.instance);
+        int length = taboo.length / 2;
+        for(int i = 0; i < length; ++i) {
+            if((taboo[2*i] == a && taboo[2*i+1] == b) || (taboo[2*i] == b && taboo[2*i+1] == a)) {
+                // the element at `head` is the oldest one
+                return length - 1 - (i - head + length) % length;
+            }
+        }
+        return -1;
+    }
+
+    private static int operation(Task t, Instance instance) {
+        return t.job * instance.numTasks + t.task;
+    }
+
+    /** Returns true if, for some period, the last makespans have repeated themselves CYCLE_REPEATS times. */
+    private static boolean hasCycle(int[] history, int historySize) {
+        int last = historySize - 1;
+        for(int period = MIN_CYCLE_PERIOD; period <= MAX_CYCLE_PERIOD; ++period) {
+            int window = CYCLE_REPEATS * period;
+            if(window + period > historySize) {
+                return false;
+            }
+            boolean cycle = true;
+            for(int k = 0; k < window && cycle; ++k) {
+                cycle = history[(last - k) % history.length] == history[(last - k - period) % history.length];
+            }
+            if(cycle) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+/** Memory of the taboo searches: for each pair of operations, the iteration until which exchanging them is forbidden.
+ *
+ * Operations are identified by job * numTasks + task, and pairs are unordered. Two implementations are available:
+ *  - Dense, a matrix of all pairs, the fastest but quadratic in the number of operations,
+ *  - Hashed, an open addressing table of the pairs forbidden recently, whose size is proportional to the tenure.
+ * Both are checked in constant time. `create` chooses between the two according to the size of the instance.
+ */
+interface TabooMemory {
+
+    /** Largest number of operations for which a dense memory is used (4 MB). */
+    int DENSE_LIMIT = 1024;
+
+    /** Forbids the exchange of two operations until the given iteration.
+     * @param iteration Current iteration: pairs forbidden until an earlier iteration may be forgotten. */
+    void forbid(int op1, int op2, int iteration, int until);
+
+    /** Iteration until which the exchange of two operations is forbidden, 0 if it never was. */
+    int expiry(int op1, int op2);
+
+    /** Forgets all forbidden pairs. */
+    void clear();
+
+    /** A memory suited to the given number of operations and expected tenure. */
+    static TabooMemory create(int numOperations, int tenure) {
+        return numOperations <= DENSE_LIMIT ? new Dense(numOperations) : new Hashed(numOperations, tenure);
+    }
+
+    /** Matrix of all pairs of operations. */
+    final class Dense implements TabooMemory {
+        private final int numOperations;
+        private final int[] expiries;
+
+        Dense(int numOperations) {
+            this.numOperations = numOperations;
+            this.expiries = new int[numOperations * numOperations];
+        }
+
+        @Override
+        public void forbid(int op1, int op2, int iteration, int until) {
+            expiries[op1 * numOperations + op2] = until;
+            expiries[op2 * numOperations + op1] = until;
+        }
+
+        @Override
+        public int expiry(int op1, int op2) {
+            return expiries[op1 * numOperations + op2];
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(expiries, 0);
+        }
+    }
+
+    /** Open addressing table (linear probing) of the pairs forbidden recently.
+     *
+     * Pairs whose expiry has passed are dropped when the table is rebuilt, which happens when half of its slots are
+     * used. The table only grows if more than a quarter of its slots are still forbidden after a rebuild, so that its
+     * size stays proportional to the number of pairs forbidden at the same time, that is to the tenure.
+     */
+    final class Hashed implements TabooMemory {
+        private static final long EMPTY = -1;
+
+        private final long numOperations;
+        private long[] pairs;
+        private int[] expiries;
+        private int used = 0;
+
+        Hashed(int numOperations, int tenure) {
+            this.numOperations = numOperations;
+            int capacity = Integer.highestOneBit(Math.max(16, 4 * tenure) - 1) * 2;
+            this.pairs = new long[capacity];
+            this.expiries = new int[capacity];
+            Arrays.fill(pairs, EMPTY);
+        }
+
+        private long pair(int op1, int op2) {
+            return op1 < op2 ? op1 * numOperations + op2 : op2 * numOperations + op1;
+        }
+
+        /** Slot of the given pair, or of the empty slot ending its probe sequence. */
+        private int slot(long pair) {
+            int mask = pairs.length - 1;
+            int slot = (int) ((pair * 0x9e3779b97f4a7c15L) >>> 32) & mask;
+            while(pairs[slot] != EMPTY && pairs[slot] != pair) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        @Override
+        public void forbid(int op1, int op2, int iteration, int until) {
+            long pair = pair(op1, op2);
+            int slot = slot(pair);
+            if(pairs[slot] == EMPTY) {
+                if(2 * (used + 1) > pairs.length) {
+                    rebuild(iteration);
+                    slot = slot(pair);
+                }
+                pairs[slot] = pair;
+                used++;
+            }
+            expiries[slot] = until;
+        }
+
+        @Override
+        public int expiry(int op1, int op2) {
+            int slot = slot(pair(op1, op2));
+            return pairs[slot] == EMPTY ? 0 : expiries[slot];
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(pairs, EMPTY);
+            used = 0;
+        }
+
+        /** Reinserts the pairs still forbidden after the given iteration, in a larger table if needed. */
+        private void rebuild(int iteration) {
+            long[] oldPairs = pairs;
+            int[] oldExpiries = expiries;
+            int live = 0;
+            for(int i = 0; i < oldPairs.length; ++i) {
+                if(oldPairs[i] != EMPTY && oldExpiries[i] > iteration) {
+                    live++;
+                }
+            }
+            int capacity = 4 * (live + 1) > oldPairs.length ? 2 * oldPairs.length : oldPairs.length;
+            pairs = new long[capacity];
+            expiries = new int[capacity];
+            Arrays.fill(pairs, EMPTY);
+            used = 0;
+            for(int i = 0; i < oldPairs.length; ++i) {
+                if(oldPairs[i] != EMPTY && oldExpiries[i] > iteration) {
+                    int slot = slot(oldPairs[i]);
+                    pairs[slot] = oldPairs[i];
+                    expiries[slot] = oldExpiries[i];
+                    used++;
+                }
+            }
+        }
+    }
+}
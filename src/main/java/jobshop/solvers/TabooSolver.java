@@ -1,6 +1,7 @@
 package jobshop.solvers;
 
 import jobshop.Instance;
+import jobshop.LowerBounds;
 import jobshop.Result;
 import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Task;
@@ -8,58 +9,91 @@ import jobshop.solvers.neighborhood.Neighbor;
 import jobshop.solvers.neighborhood.Neighborhood;
 import jobshop.solvers.neighborhood.Nowicki;
 
-import java.util.ArrayList;
 import java.util.List;
 
-/** An empty shell to implement a descent solver. */
+/** Taboo search on the neighborhood of Nowicki and Smutnicki.
+ *
+ * At each iteration, the search moves to the best neighbor of the current solution, even if it is worse, unless the
+ * swap that leads to it is taboo. Swapping two tasks forbids exchanging them again for tabooTime iterations: the
+ * iteration until which each pair of operations is forbidden is kept in a TabooMemory, dense on small instances and
+ * hashed on large ones (see TabooMemory.create), so that checking a move takes constant time.
+ *
+ * A taboo move is still accepted if it leads to a solution better than the best one found so far (aspiration).
+ * With a flipPeriod, the search is diversified by going on periodically on the reversed instance, where the
+ * neighborhood of the current solution is different. The search stops after maxIter iterations, at the deadline or
+ * once the best solution reaches the lower bound of the instance.
+ */
 public class TabooSolver implements Solver {
 
     final Neighborhood<ResourceOrder> neighborhood;
     final Solver baseSolver;
     final int maxIter;
     final int tabooTime;
-    int numIter;
+    /** Number of iterations between two changes of orientation, 0 to never change it. */
+    final int flipPeriod;
 
-    private ResourceOrder bestRO;
-
-    private int[][] tabooMatrice;
-
-    private ArrayList<Integer> makespans = new ArrayList<Integer>();
-
-    /** Creates a new descent solver with a given neighborhood and a solver for the initial solution.
+    /** Creates a new taboo solver with a given neighborhood and a solver for the initial solution.
      *
      * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
      * @param baseSolver A solver to provide the initial solution.
+     * @param maxIter Maximum number of iterations.
+     * @param tabooTime Number of iterations during which the exchange of two swapped tasks is forbidden.
      */
     public TabooSolver(Neighborhood<ResourceOrder> neighborhood, Solver baseSolver, int maxIter, int tabooTime) {
+        this(neighborhood, baseSolver, maxIter, tabooTime, 0);
+    }
+
+    /** Creates a new taboo solver that periodically goes on with the search on the reversed instance.
+     *
+     * Every flipPeriod iterations, the current and best solutions are converted to the reversed instance (see
+     * Instance.reversed()) and the taboo list is cleared. The neighborhood of a solution is not the same in both
+     * orientations, which diversifies the search.
+     *
+     * @param flipPeriod Number of iterations between two changes of orientation, 0 to never change it.
+     */
+    public TabooSolver(Neighborhood<ResourceOrder> neighborhood, Solver baseSolver, int maxIter, int tabooTime, int flipPeriod) {
         this.neighborhood = neighborhood;
         this.baseSolver = baseSolver;
         this.maxIter = maxIter;
         this.tabooTime = tabooTime;
-        this.numIter = 0;
+        this.flipPeriod = flipPeriod;
     }
 
     @Override
-    public Result solve(Instance instance, long deadline) {
+    public Result solve(Instance instance, long deadline, SolverListener listener) {
 
-        this.tabooMatrice =
-                new int[instance.numTasks * instance.numJobs][instance.numTasks * instance.numJobs];
+        // for each pair of operations, the iteration until which exchanging them is forbidden
+        TabooMemory taboo = TabooMemory.create(instance.numTasks * instance.numJobs, tabooTime);
+        // iterations of this run: solvers are reused from one instance to the next
+        int numIter = 0;
 
         Solver sol = baseSolver;
         Result res = sol.solve(instance, deadline);
         ResourceOrder ro = new ResourceOrder(res.schedule.get());
-        bestRO = ro.copy();
-
+        ResourceOrder bestRO = ro.snapshot();
+        int bestMakespan = res.schedule.get().makespan();
+        int lowerBound = LowerBounds.of(instance);
+        Instance original = instance;
+        Progress progress = Progress.start(this, original, listener);
+        progress.improved(0, res.schedule);
 
-        while(deadline - System.currentTimeMillis() > 1){
+        // no need to go on once the best solution reaches the lower bound
+        while(deadline - System.currentTimeMillis() > 1 && bestMakespan > lowerBound){
 
             ++numIter;
 
+            if(flipPeriod > 0 && numIter % flipPeriod == 0){
+                ro = ro.reversed();
+                bestRO = bestRO.reversed();
+                instance = ro.instance;
+                taboo.clear();
+            }
+
             Nowicki nowicki = (Nowicki) neighborhood;
             List<Neighbor<ResourceOrder>> neighbors = nowicki.generateNeighbors(ro);
 
             if(neighbors.isEmpty()){
-                return new Result(instance, ro.toSchedule(), Result.ExitCause.Blocked);
+                return Result.withLowerBound(original, forward(ro, original).toSchedule(), Result.ExitCause.Blocked, lowerBound);
             }
 
             Neighbor<ResourceOrder> best = null;
@@ -68,15 +102,15 @@ public class TabooSolver implements Solver {
             for(int i=0; i<neighbors.size(); ++i){
                 Neighbor<ResourceOrder> actual = neighbors.get(i);
                 actual.applyOn(ro);
-                int new_makespan = ro.toSchedule().get().makespan();
+                int new_makespan = TranspositionCache.of(instance).makespan(ro);
                 actual.undoApplyOn(ro);
                 // If it's even better than actual makespan, we take it anyway
-                if(forbidden(actual,instance) && new_makespan < bestRO.toSchedule().get().makespan()){
+                if(forbidden(taboo, actual, ro, instance, numIter) && new_makespan < bestMakespan){
                     best_makespan = new_makespan;
                     best = actual;
                 } else {
                     // Otherwise, we apply classical taboo method
-                    if( ! forbidden(actual, instance) && new_makespan < best_makespan) {
+                    if( ! forbidden(taboo, actual, ro, instance, numIter) && new_makespan < best_makespan) {
                         best_makespan = new_makespan;
                         best = actual;
                     }
@@ -86,48 +120,55 @@ public class TabooSolver implements Solver {
 
 
             if(best != null){
-                makespans.add(best_makespan);
                 best.applyOn(ro);
 
-                forbid(best, instance);
+                forbid(taboo, best, ro, instance, numIter);
+                SolverMetrics.iteration(this, original, numIter, best_makespan);
 
-                if(best_makespan < bestRO.toSchedule().get().makespan()){
-                    bestRO = ro.copy();
+                if(best_makespan < bestMakespan){
+                    bestRO = ro.snapshot();
+                    bestMakespan = best_makespan;
+                    ResourceOrder current = ro;
+                    progress.improved(numIter, best_makespan, () -> forward(current, original).toSchedule());
                 }
             }
 
             if(numIter == maxIter){
-                return new Result(instance, bestRO.toSchedule(), Result.ExitCause.MaxIteration);
+                return Result.withLowerBound(original, forward(bestRO, original).toSchedule(), Result.ExitCause.MaxIteration, lowerBound);
             }
         }
 
-        return new Result(instance, ro.toSchedule(), Result.ExitCause.Timeout);
+        return Result.withLowerBound(original, forward(bestRO, original).toSchedule(), Result.ExitCause.Timeout, lowerBound);
     }
 
-    public ArrayList<Integer> getMakespans(){
-        return this.makespans;
+    /** The given resource order in the orientation of the instance given to solve(). */
+    private static ResourceOrder forward(ResourceOrder ro, Instance original){
+        return ro.instance == original ? ro : ro.reversed();
     }
 
-    private void forbid(Neighbor<ResourceOrder> forbidden, Instance instance){
+    /** Forbids the exchange of the two tasks of a swap of the current resource order for tabooTime iterations. */
+    private void forbid(TabooMemory taboo, Neighbor<ResourceOrder> forbidden, ResourceOrder current, Instance instance, int numIter){
+        long start = SolverMetrics.start();
         Nowicki.Swap swap = (Nowicki.Swap) forbidden;
-        Task t1 = bestRO.getTaskOfMachine(swap.machine, swap.t1);
-        Task t2 = bestRO.getTaskOfMachine(swap.machine, swap.t2);
+        Task t1 = current.getTaskOfMachine(swap.machine, swap.t1);
+        Task t2 = current.getTaskOfMachine(swap.machine, swap.t2);
         int t1_index = t1.job * instance.numTasks + t1.task;
         int t2_index = t2.job * instance.numTasks + t2.task;
-        tabooMatrice[t1_index][t2_index] = numIter + tabooTime;
-        tabooMatrice[t2_index][t1_index] = numIter + tabooTime;
+        taboo.forbid(t1_index, t2_index, numIter, numIter + tabooTime);
+        SolverMetrics.stop(SolverMetrics.Phase.TABOO, start);
     }
 
-    private boolean forbidden(Neighbor<ResourceOrder> neighbor, Instance instance){
+    /** True if the exchange of the two tasks of a swap of the current resource order is still forbidden. */
+    private static boolean forbidden(TabooMemory taboo, Neighbor<ResourceOrder> neighbor, ResourceOrder current, Instance instance, int numIter){
+        long start = SolverMetrics.start();
         Nowicki.Swap swap = (Nowicki.Swap) neighbor;
-        Task t1 = bestRO.getTaskOfMachine(swap.machine, swap.t1);
-        Task t2 = bestRO.getTaskOfMachine(swap.machine, swap.t2);
+        Task t1 = current.getTaskOfMachine(swap.machine, swap.t1);
+        Task t2 = current.getTaskOfMachine(swap.machine, swap.t2);
         int t1_index = t1.job * instance.numTasks + t1.task;
         int t2_index = t2.job * instance.numTasks + t2.task;
-        return tabooMatrice[t1_index][t2_index] > numIter + tabooTime
-                ||  tabooMatrice[t2_index][t1_index] > numIter + tabooTime;
+        boolean forbidden = taboo.expiry(t1_index, t2_index) > numIter;
+        SolverMetrics.stop(SolverMetrics.Phase.TABOO, start);
+        return forbidden;
     }
 
-    public void deleteMakespan(){ this.makespans.clear();}
-
 }
@@ -0,0 +1,106 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+/** Convergence trace of a run of a solver: the time, iteration and makespan of each of its improving solutions.
+ *
+ * The trace is recorded in primitive arrays that grow up to a maximum number of points. Once this maximum is reached,
+ * the trace is downsampled: every other point is dropped, and only one improvement out of two (then four, eight...)
+ * is recorded from then on, so that very long runs keep a trace of bounded size that still spans the whole run. The
+ * last improvement is always kept, as it is the result of the run.
+ *
+ * Recording a point never allocates, except when the arrays grow, and never does any I/O: traces are meant to be
+ * written once the run is over (see jobshop.TraceWriter). Listeners of a solver are notified one at a time by its
+ * Progress, so a trace does not need to be synchronized, but it must only be read once the run is over.
+ */
+public final class TraceBuffer implements SolverListener {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int maxPoints;
+    private long[] nanos;
+    private long[] iterations;
+    private int[] makespans;
+    private int size = 0;
+    /** Only one improvement out of stride is recorded. */
+    private int stride = 1;
+    /** Improvements seen since the last recorded one. */
+    private int skipped = 0;
+
+    /** The last improvement, which may not be recorded because of downsampling. */
+    private long lastNanos;
+    private long lastIteration;
+    private int lastMakespan = -1;
+
+    /** Creates an empty trace that keeps at most maxPoints points (at least 2). */
+    public TraceBuffer(int maxPoints) {
+        if(maxPoints < 2) {
+            throw new RuntimeException("A trace must keep at least 2 points: " + maxPoints);
+        }
+        this.maxPoints = maxPoints;
+        int capacity = Math.min(INITIAL_CAPACITY, maxPoints);
+        this.nanos = new long[capacity];
+        this.iterations = new long[capacity];
+        this.makespans = new int[capacity];
+    }
+
+    @Override
+    public void improved(Incumbent incumbent) {
+        lastNanos = incumbent.elapsedNanos;
+        lastIteration = incumbent.iteration;
+        lastMakespan = incumbent.makespan;
+        if(++skipped < stride) {
+            return;
+        }
+        skipped = 0;
+        if(size == maxPoints) {
+            downsample();
+        } else if(size == makespans.length) {
+            int capacity = Math.min(2 * size, maxPoints);
+            nanos = Arrays.copyOf(nanos, capacity);
+            iterations = Arrays.copyOf(iterations, capacity);
+            makespans = Arrays.copyOf(makespans, capacity);
+        }
+        nanos[size] = lastNanos;
+        iterations[size] = lastIteration;
+        makespans[size] = lastMakespan;
+        size++;
+    }
+
+    /** Drops every other point, and doubles the stride. */
+    private void downsample() {
+        int kept = 0;
+        for(int i = 0; i < size; i += 2) {
+            nanos[kept] = nanos[i];
+            iterations[kept] = iterations[i];
+            makespans[kept] = makespans[i];
+            kept++;
+        }
+        size = kept;
+        stride *= 2;
+    }
+
+    /** Number of points of the trace, the last improvement included. */
+    public int size() {
+        return isLastRecorded() ? size : size + 1;
+    }
+
+    private boolean isLastRecorded() {
+        return lastMakespan < 0 || (size > 0 && makespans[size - 1] == lastMakespan);
+    }
+
+    /** Time at which the solution of the given point was found, in nanoseconds since the beginning of the run. */
+    public long nanos(int point) {
+        return point == size ? lastNanos : nanos[point];
+    }
+
+    /** Iteration at which the solution of the given point was found. */
+    public long iteration(int point) {
+        return point == size ? lastIteration : iterations[point];
+    }
+
+    /** Makespan of the solution of the given point. */
+    public int makespan(int point) {
+        return point == size ? lastMakespan : makespans[point];
+    }
+}
@@ -0,0 +1,213 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/** Bounded cache of the makespans of the resource orders already evaluated, keyed by their Zobrist hash.
+ *
+ * Local search solvers evaluate the same resource orders again and again: the neighborhood checks that a neighbor
+ * is valid, the solver then evaluates it, and taboo search often moves back and forth between a few solutions.
+ *
+ * Entries are stored in primitive arrays, by buckets of BUCKET_SIZE slots (open addressing, the bucket being given
+ * by the hash). When a bucket is full, an entry is evicted with the CLOCK policy: the hand of the bucket skips (and
+ * clears) the slots referenced since it last passed over them.
+ *
+ * There is one cache per instance, shared by all the solvers, as the makespan of a resource order does not depend on
+ * who evaluates it. Methods are synchronized so that solvers evaluating neighbors in parallel can share it.
+ *
+ * The caches created by of() are sized from their instance (ENTRIES_PER_TASK entries per task, up to the capacity set
+ * by setCapacity()), and their arrays are only allocated when the first makespan is stored: a reversed view or a
+ * sub-instance that no local search explores costs a few bytes.
+ */
+public final class TranspositionCache {
+
+    /** Makespan of a resource order that does not represent a valid solution. */
+    public static final int INVALID = Integer.MAX_VALUE;
+
+    /** Number of slots of a bucket. */
+    static final int BUCKET_SIZE = 4;
+
+    /** Number of entries per task of the instance of the caches created by of(). */
+    static final int ENTRIES_PER_TASK = 256;
+
+    /** Maximum number of entries of the caches created from now on, 0 to disable caching. */
+    private static volatile int capacity = 1 << 20;
+
+    private static final Map<Instance, TranspositionCache> caches = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** Number of buckets, 0 if the cache is disabled. */
+    private final int buckets;
+    private final int bucketMask;
+    // arrays of the entries, null until the first makespan is stored
+    /** Hash of the resource order of each slot, 0 for an empty slot. */
+    private long[] keys;
+    private int[] makespans;
+    /** Reference bit of each slot for the CLOCK policy. */
+    private boolean[] referenced;
+    /** Position of the hand of each bucket. */
+    private byte[] hands;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /** Creates a cache of at least the given number of entries (rounded up to a power of two), 0 to disable it.
+     * Its memory is allocated on first use. */
+    public TranspositionCache(int capacity) {
+        int buckets = 0;
+        if(capacity > 0) {
+            int needed = (capacity + BUCKET_SIZE - 1) / BUCKET_SIZE;
+            buckets = Integer.highestOneBit(needed);
+            if(buckets < needed) {
+                buckets *= 2;
+            }
+        }
+        this.buckets = buckets;
+        this.bucketMask = buckets - 1;
+    }
+
+    /** Sets the maximum number of entries of the caches of the instances that are not cached yet (0 to disable
+     * caching). */
+    public static void setCapacity(int entries) {
+        capacity = entries;
+        caches.clear();
+    }
+
+    /** The cache shared by all solvers for the given instance. */
+    public static TranspositionCache of(Instance instance) {
+        return caches.computeIfAbsent(instance, i -> new TranspositionCache(entries(i)));
+    }
+
+    /** The cache of the given instance, if a solver used one. */
+    public static Optional<TranspositionCache> existing(Instance instance) {
+        return Optional.ofNullable(caches.get(instance));
+    }
+
+    /** Number of entries of the cache of the given instance. */
+    static int entries(Instance instance) {
+        long entries = (long) ENTRIES_PER_TASK * instance.numJobs * instance.numTasks;
+        return (int) Math.min(capacity, entries);
+    }
+
+    /** Drops the cache of the given instance, whose memory is otherwise kept as long as the instance is reachable. */
+    public static void release(Instance instance) {
+        caches.remove(instance);
+    }
+
+    /** Makespan of the given resource order, or INVALID if it contains a cycle. Evaluates it only on a cache miss. */
+    public int makespan(ResourceOrder order) {
+        SolverMetrics.count(SolverMetrics.Counter.EVALUATIONS);
+        long hash = slotKey(order.zobristHash());
+        int cached = get(hash);
+        if(cached >= 0) {
+            return cached;
+        }
+        SolverMetrics.count(SolverMetrics.Counter.DECODES);
+        long start = SolverMetrics.start();
+        Optional<Schedule> schedule = order.toSchedule();
+        int makespan = schedule.isPresent() ? schedule.get().makespan() : INVALID;
+        SolverMetrics.stop(SolverMetrics.Phase.DECODE, start);
+        put(hash, makespan);
+        return makespan;
+    }
+
+    /** True if the given resource order represents a valid solution. */
+    public boolean isValid(ResourceOrder order) {
+        return makespan(order) != INVALID;
+    }
+
+    /** Hash as stored in a slot: 0 marks empty slots. */
+    private static long slotKey(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+
+    /** Cached makespan for the given hash, -1 on a miss. */
+    private synchronized int get(long hash) {
+        if(keys == null) {
+            misses++;
+            return -1;
+        }
+        int first = (int) (hash ^ (hash >>> 32)) & bucketMask;
+        for(int slot = first * BUCKET_SIZE; slot < (first + 1) * BUCKET_SIZE; ++slot) {
+            if(keys[slot] == hash) {
+                referenced[slot] = true;
+                hits++;
+                return makespans[slot];
+            }
+        }
+        misses++;
+        return -1;
+    }
+
+    private synchronized void put(long hash, int makespan) {
+        if(buckets == 0) {
+            return;
+        }
+        if(keys == null) {
+            keys = new long[buckets * BUCKET_SIZE];
+            makespans = new int[buckets * BUCKET_SIZE];
+            referenced = new boolean[buckets * BUCKET_SIZE];
+            hands = new byte[buckets];
+        }
+        int bucket = (int) (hash ^ (hash >>> 32)) & bucketMask;
+        int base = bucket * BUCKET_SIZE;
+        for(int slot = base; slot < base + BUCKET_SIZE; ++slot) {
+            if(keys[slot] == 0 || keys[slot] == hash) {
+                keys[slot] = hash;
+                makespans[slot] = makespan;
+                return;
+            }
+        }
+        // bucket full: CLOCK eviction, giving a second chance to the slots referenced since the last pass
+        int hand = hands[bucket];
+        while(referenced[base + hand]) {
+            referenced[base + hand] = false;
+            hand = (hand + 1) % BUCKET_SIZE;
+        }
+        keys[base + hand] = hash;
+        makespans[base + hand] = makespan;
+        hands[bucket] = (byte) ((hand + 1) % BUCKET_SIZE);
+        evictions++;
+    }
+
+    /** Removes all entries and resets the statistics. */
+    public synchronized void clear() {
+        if(keys != null) {
+            Arrays.fill(keys, 0);
+            Arrays.fill(referenced, false);
+            Arrays.fill(hands, (byte) 0);
+        }
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /** Fraction of the lookups that found the makespan in the cache. */
+    public synchronized double hitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    /** Memory used by the entries of the cache, in bytes (0 until the first makespan is stored). */
+    public synchronized long memoryBytes() {
+        return keys == null ? 0 : (long) keys.length * (Long.BYTES + Integer.BYTES + 1) + hands.length;
+    }
+}
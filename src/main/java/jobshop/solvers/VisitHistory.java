@@ -0,0 +1,98 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+/** Visits of the solutions met by a search, keyed by the Zobrist hash of their resource order.
+ *
+ * Entries are stored in primitive arrays with open addressing (linear probing), as in TranspositionCache: for each
+ * fingerprint, the iteration of its last visit and its number of visits. The table grows up to a maximum number of
+ * fingerprints, and is then cleared: the search forgets about the past and starts recording visits again.
+ */
+final class VisitHistory {
+
+    private static final int INITIAL_SLOTS = 1 << 10;
+
+    /** Maximum number of fingerprints: the table always has at least twice as many slots. */
+    private final int maxSize;
+    /** Hash of the resource order of each slot, 0 for an empty slot. */
+    private long[] keys = new long[INITIAL_SLOTS];
+    private int[] lastVisits = new int[INITIAL_SLOTS];
+    private int[] counts = new int[INITIAL_SLOTS];
+    private int size = 0;
+
+    /** Iterations elapsed between the last two visits of the solution of the last call to visit(). */
+    private int cycleLength = 0;
+
+    VisitHistory(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /** Records a visit of the solution with the given fingerprint at the given iteration.
+     * @return the number of visits of the solution, this one included (1 for a new solution). */
+    int visit(long hash, int iteration) {
+        long key = hash == 0 ? 1 : hash;
+        int slot = find(key);
+        if(keys[slot] == key) {
+            cycleLength = iteration - lastVisits[slot];
+            lastVisits[slot] = iteration;
+            return ++counts[slot];
+        }
+
+        if(size >= maxSize) {
+            clear();
+        } else if(2 * (size + 1) > keys.length) {
+            grow();
+        }
+        slot = find(key);
+        keys[slot] = key;
+        lastVisits[slot] = iteration;
+        counts[slot] = 1;
+        size++;
+        cycleLength = 0;
+        return 1;
+    }
+
+    /** Iterations elapsed between the last visit recorded by visit() and the previous visit of the same solution, 0
+     * if it was a new solution. */
+    int cycleLength() {
+        return cycleLength;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Forgets all visits. */
+    void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    /** Slot of the given key, or the empty slot where it should be inserted. */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while(keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /** Doubles the number of slots. */
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldLastVisits = lastVisits;
+        int[] oldCounts = counts;
+        keys = new long[2 * oldKeys.length];
+        lastVisits = new int[keys.length];
+        counts = new int[keys.length];
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                lastVisits[slot] = oldLastVisits[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Neighborhood of van Laarhoven et al. restricted to the blocks of the critical path.
+ *
+ * It generates a swap for every pair of adjacent tasks inside a block of the critical path.
+ * This is a superset of the Nowicki and Smutnicki neighborhood (which only keeps the swaps at the
+ * extremities of each block) and all its neighbors are guaranteed to be valid resource orders.
+ */
+public class AdjacentSwaps extends Nowicki {
+
+    /** For a given block, return the swaps of every pair of adjacent tasks in it. */
+    @Override
+    List<Swap> neighbors(Block block, ResourceOrder current) {
+        ArrayList<Swap> answer = new ArrayList<>();
+        for(int t = block.firstTask; t < block.lastTask; ++t) {
+            answer.add(new Swap(block.machine, t, t+1));
+        }
+        return answer;
+    }
+}
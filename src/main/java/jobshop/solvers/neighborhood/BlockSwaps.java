@@ -0,0 +1,37 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.TranspositionCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Neighborhood exchanging any two tasks of a same block of the critical path.
+ *
+ * This is the largest (and most expensive) of the block based neighborhoods. Exchanging two tasks that are not
+ * adjacent may produce a cyclic resource order: such neighbors are filtered out when they are generated.
+ */
+public class BlockSwaps extends Nowicki {
+
+    /** For a given block, return all the swaps of two of its tasks that lead to a valid resource order. */
+    @Override
+    List<Swap> neighbors(Block block, ResourceOrder current) {
+        ArrayList<Swap> answer = new ArrayList<>();
+        for(int t1 = block.firstTask; t1 < block.lastTask; ++t1) {
+            for(int t2 = t1+1; t2 <= block.lastTask; ++t2) {
+                Swap swap = new Swap(block.machine, t1, t2);
+                if(t2 == t1+1) {
+                    // adjacent tasks of the critical path can always be exchanged
+                    answer.add(swap);
+                    continue;
+                }
+                swap.applyOn(current);
+                if(TranspositionCache.of(current.instance).isValid(current)) {
+                    answer.add(swap);
+                }
+                swap.undoApplyOn(current);
+            }
+        }
+        return answer;
+    }
+}
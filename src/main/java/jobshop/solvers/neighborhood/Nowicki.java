@@ -1,11 +1,13 @@
 package jobshop.solvers.neighborhood;
 
 import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
 import jobshop.encodings.Task;
+import jobshop.solvers.SolverMetrics;
 
-import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 
 /** Implementation of the Nowicki and Smutnicki neighborhood.
@@ -106,12 +108,15 @@ public class Nowicki extends Neighborhood<ResourceOrder> {
     /** Generates all swaps of the given ResourceOrder.
      * This method can be used if one wants to access the inner fields of a neighbors. */
     public List<Swap> allSwaps(ResourceOrder current) {
+        long start = SolverMetrics.start();
         List<Swap> neighbors = new ArrayList<>();
         // iterate over all blocks of the critical path
         for(var block : blocksOfCriticalPath(current)) {
             // for this block, compute all neighbors and add them to the list of neighbors
             neighbors.addAll(neighbors(block, current));
         }
+        SolverMetrics.add(SolverMetrics.Counter.NEIGHBORS, neighbors.size());
+        SolverMetrics.stop(SolverMetrics.Phase.NEIGHBORHOOD, start);
         return neighbors;
     }
 
@@ -129,7 +134,13 @@ public class Nowicki extends Neighborhood<ResourceOrder> {
     public List<Block> blocksOfCriticalPath(ResourceOrder order) {
 
         ArrayList<Block> answer = new ArrayList<>();
-        List<Task> criticalPath = order.toSchedule().get().criticalPath();
+        SolverMetrics.count(SolverMetrics.Counter.DECODES);
+        long start = SolverMetrics.start();
+        Schedule schedule = order.toSchedule().get();
+        SolverMetrics.stop(SolverMetrics.Phase.DECODE, start);
+        start = SolverMetrics.start();
+        List<Task> criticalPath = schedule.criticalPath();
+        SolverMetrics.stop(SolverMetrics.Phase.CRITICAL_PATH, start);
 
         int currentBlockMachine = -1;
         int currentFirstTask = -1;
@@ -170,42 +181,49 @@ public class Nowicki extends Neighborhood<ResourceOrder> {
 
     }
 
-    /** For a given block, return the possible swaps for the Nowicki and Smutnicki neighborhood */
+    /** Random walk on the critical path: performs `steps` random swaps of adjacent tasks in blocks of the critical
+     * path, used to kick a search out of a local optimum.
+     *
+     * Each swap is picked on the critical path of the solution produced by the previous one, which guarantees that
+     * the resource order remains valid. Stops early if the critical path has no block.
+     */
+    public void randomWalk(ResourceOrder order, int steps, Random generator) {
+        for(int i = 0; i < steps; ++i) {
+            List<Block> blocks = blocksOfCriticalPath(order);
+            if(blocks.isEmpty()) {
+                return;
+            }
+            Block block = blocks.get(generator.nextInt(blocks.size()));
+            int t = block.firstTask + generator.nextInt(block.lastTask - block.firstTask);
+            order.swapTasks(block.machine, t, t+1);
+        }
+    }
+
+    /** For a given block, return the possible swaps for the Nowicki and Smutnicki neighborhood.
+     *
+     * Swapping two adjacent tasks of a critical path never creates a cycle, so the swaps are always valid: this is
+     * only checked when assertions are enabled. */
     List<Swap> neighbors(Block block, ResourceOrder current) {
 
         ArrayList<Swap> answer = new ArrayList<>();
 
         if(block.lastTask - block.firstTask == 1){
-            Swap swap = new Swap(block.machine, block.firstTask, block.lastTask);
-            swap.applyOn(current);
-            if(current.toSchedule().get() != null){
-                answer.add(swap);
-            } else {
-                System.out.println("--\nNOT VALID RESOURCE ORDER PRODUCED\n--");
-            }
-            swap.undoApplyOn(current);
-
+            answer.add(new Swap(block.machine, block.firstTask, block.lastTask));
         } else {
-            Swap swap1 = new Swap(block.machine, block.firstTask, block.firstTask+1);
-            Swap swap2 = new Swap(block.machine, block.lastTask-1, block.lastTask);
-            swap1.applyOn(current);
-            if(current.toSchedule().get() != null){
-                answer.add(swap1);
-            } else {
-                System.out.println("--\nNOT VALID RESOURCE ORDER PRODUCED\n--");
-            }
-            swap1.undoApplyOn(current);
-
-            swap2.applyOn(current);
-            if(current.toSchedule().get() != null){
-                answer.add(swap2);
-            } else {
-                System.out.println("--\nNOT VALID RESOURCE ORDER PRODUCED\n--");
-            }
-            swap2.undoApplyOn(current);
+            answer.add(new Swap(block.machine, block.firstTask, block.firstTask+1));
+            answer.add(new Swap(block.machine, block.lastTask-1, block.lastTask));
         }
+        assert answer.stream().allMatch(swap -> isValid(swap, current)) : "invalid resource order produced";
 
         return answer;
     }
 
+    /** True if applying the given swap on the given resource order gives a valid solution. */
+    private static boolean isValid(Swap swap, ResourceOrder current) {
+        swap.applyOn(current);
+        boolean valid = current.toSchedule().isPresent();
+        swap.undoApplyOn(current);
+        return valid;
+    }
+
 }
@@ -0,0 +1,117 @@
+package jobshop;
+
+import jobshop.solvers.Solver;
+import jobshop.solvers.TraceBuffer;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReportTests {
+
+    private static final double EPSILON = 1e-3;
+
+    @Test
+    public void testStatistics() {
+        double[] values = {5, 1, 4, 2, 3};
+        assert Statistics.mean(values) == 3;
+        assert Statistics.median(values) == 3;
+        assert Statistics.min(values) == 1 && Statistics.max(values) == 5;
+        // standard deviation sqrt(10 / 4), 4 degrees of freedom: 2.776 * 1.5811 / sqrt(5)
+        assert Math.abs(Statistics.confidence95(values) - 1.963) < EPSILON;
+        // the values are left unchanged by the median
+        assert values[0] == 5 && values[4] == 3;
+
+        assert Statistics.median(new double[] {4, 1, 3, 2}) == 2.5;
+        assert Statistics.confidence95(new double[] {42}) == 0;
+        assert Statistics.confidence95(new double[] {7, 7, 7}) == 0;
+
+        // beyond 30 degrees of freedom, the quantile of the normal distribution is used
+        double[] many = new double[100];
+        for(int i = 0; i < many.length; i++) {
+            many[i] = i % 2;
+        }
+        assert Math.abs(Statistics.mean(many) - 0.5) < EPSILON;
+        assert Math.abs(Statistics.confidence95(many) - 1.960 * Math.sqrt(25.0 / 99) / 10) < EPSILON;
+    }
+
+    @Test
+    public void testWarmup() {
+        // each solver runs for the whole warm-up time, even those that return at once
+        long start = System.currentTimeMillis();
+        Main.warmup(List.of("spt", "tsab"), 150);
+        long elapsed = System.currentTimeMillis() - start;
+        assert elapsed >= 2 * 150 - 2 && elapsed < 2000 : elapsed;
+    }
+
+    @Test
+    public void testConvergencePlot() throws Exception {
+        // 1, 2 or 5 times a power of 10, for about 5 to 10 ticks
+        assert ConvergencePlot.tickStep(1000) == 200;
+        assert ConvergencePlot.tickStep(7) == 1;
+        assert Math.abs(ConvergencePlot.tickStep(0.3) - 0.05) < 1e-12;
+
+        Instance ft06 = Instance.fromFile(Paths.get("instances/ft06"));
+        List<String> solvers = List.of("spt", "<tsab>");
+        List<TraceBuffer> traces = new ArrayList<>();
+        long[] runtimes = new long[solvers.size()];
+        for(int s = 0; s < solvers.size(); s++) {
+            TraceBuffer trace = new TraceBuffer(100);
+            long start = System.currentTimeMillis();
+            Solver.getSolver(s == 0 ? "spt" : "tsab").solve(ft06, start + 200, trace);
+            runtimes[s] = System.currentTimeMillis() - start;
+            traces.add(trace);
+        }
+        String svg = ConvergencePlot.convergence("ft06", 55, solvers, traces, runtimes);
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8)));
+        assert document.getDocumentElement().getNodeName().equals("svg");
+        assert document.getElementsByTagName("polyline").getLength() == solvers.size();
+        assert svg.contains("&lt;tsab&gt;");
+
+        String overview = ConvergencePlot.overview(List.of("ft06", "la01"), solvers, new float[][] {{10, 0}, {5, 1}});
+        document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(overview.getBytes(StandardCharsets.UTF_8)));
+        assert document.getElementsByTagName("circle").getLength() == 4;
+    }
+
+    @Test
+    public void testTraceWriter() throws Exception {
+        Path directory = Files.createTempDirectory("traces");
+        Instance ft06 = Instance.fromFile(Paths.get("instances/ft06"));
+        TraceBuffer trace = new TraceBuffer(100);
+        Solver.getSolver("tsab").solve(ft06, System.currentTimeMillis() + 200, trace);
+        try(TraceWriter traces = new TraceWriter(directory, null)) {
+            traces.write("ft06", "tsab", trace);
+        }
+
+        // one line per improvement, with the time in milliseconds to the microsecond
+        List<String> lines = Files.readAllLines(directory.resolve("ft06-tsab.csv"));
+        assert lines.get(0).equals(TraceWriter.HEADER) && lines.size() == trace.size() + 1;
+        for(int i = 0; i < trace.size(); i++) {
+            String[] fields = lines.get(i + 1).split(",");
+            assert fields[0].matches("[0-9]+\\.[0-9]{3}") : lines.get(i + 1);
+            assert Math.abs(Double.parseDouble(fields[0]) - trace.nanos(i) / 1e6) < EPSILON;
+            assert Long.parseLong(fields[1]) == trace.iteration(i) && Integer.parseInt(fields[2]) == trace.makespan(i);
+        }
+
+        // a trace that cannot be written is reported when the writer is closed
+        Files.createDirectory(directory.resolve("ft06-pr.csv"));
+        try {
+            try(TraceWriter traces = new TraceWriter(directory, null)) {
+                traces.write("ft06", "pr", trace);
+            }
+            assert false : "the failure to write a trace must be reported";
+        } catch (IOException e) {
+            assert e.getMessage().startsWith("Cannot write a trace");
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package jobshop.encodings;
 
 import jobshop.Instance;
+import jobshop.InstanceCatalog;
 import jobshop.Result;
+import jobshop.TaillardGenerator;
 import jobshop.solvers.Solver;
 import jobshop.solvers.BasicSolver;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 public class EncodingTests {
 
@@ -71,4 +76,187 @@ public class EncodingTests {
         assert result.schedule.get().makespan() == sched.makespan(); // should have the same makespan
     }
 
+    @Test
+    public void testResourceOrderCopies() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        ResourceOrder ro = new ResourceOrder(new BasicSolver().solve(instance, System.currentTimeMillis() + 10).schedule.get());
+
+        ResourceOrder copy = ro.copy();
+        ResourceOrder snapshot = ro.snapshot();
+        ResourceOrder target = new ResourceOrder(instance);
+        ro.copyInto(target);
+        assert copy.equals(ro) && snapshot.equals(ro) && target.equals(ro);
+        assert copy.zobristHash() == ro.zobristHash() && snapshot.zobristHash() == ro.zobristHash();
+
+        // modifying the original leaves the copies unchanged, and the other way round
+        Task first = ro.getTaskOfMachine(0, 0);
+        ro.swapTasks(0, 0, 1);
+        assert !ro.equals(snapshot) && ro.zobristHash() != snapshot.zobristHash();
+        assert snapshot.getTaskOfMachine(0, 0).equals(first) && copy.getTaskOfMachine(0, 0).equals(first);
+        assert target.getTaskOfMachine(0, 0).equals(first);
+        snapshot.swapTasks(1, 0, 1);
+        assert ro.getTaskOfMachine(1, 0).equals(copy.getTaskOfMachine(1, 0));
+
+        // the Zobrist hash does not depend on the sequence of modifications
+        ro.swapTasks(0, 0, 1);
+        assert ro.equals(copy) && ro.zobristHash() == copy.zobristHash() && ro.hashCode() == copy.hashCode();
+    }
+
+    @Test
+    public void testReversed() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la01"));
+        Instance reversed = instance.reversed();
+        assert reversed != instance && reversed.reversed() == instance && instance.reversed() == reversed;
+        for(int j = 0; j < instance.numJobs; j++) {
+            for(int t = 0; t < instance.numTasks; t++) {
+                int mirror = instance.numTasks - 1 - t;
+                assert reversed.duration(j, mirror) == instance.duration(j, t);
+                assert reversed.machine(j, mirror) == instance.machine(j, t);
+            }
+        }
+
+        // a solution read backwards is a solution of the reversed instance with the same makespan, and back
+        Schedule schedule = new BasicSolver().solve(instance, System.currentTimeMillis() + 10).schedule.get();
+        ResourceOrder ro = new ResourceOrder(schedule);
+        ResourceOrder backward = ro.reversed();
+        assert backward.instance == reversed;
+        Schedule backwardSchedule = backward.toSchedule().get();
+        assert backwardSchedule.isValid() && backwardSchedule.makespan() == schedule.makespan();
+        for(int m = 0; m < instance.numMachines; m++) {
+            for(int i = 0; i < instance.numJobs; i++) {
+                Task task = ro.getTaskOfMachine(m, i);
+                Task mirror = backward.getTaskOfMachine(m, instance.numJobs - 1 - i);
+                assert mirror.job == task.job && mirror.task == instance.numTasks - 1 - task.task;
+            }
+        }
+        assert backward.reversed().instance == instance && backward.reversed().equals(ro);
+
+        // release dates cannot be reversed
+        int[] jobs = {0, 1};
+        Instance sub = instance.subInstance("sub", jobs, new int[] {1, 1}, new int[] {3, 3}, new int[] {5, 7},
+                new int[instance.numMachines]);
+        try {
+            sub.reversed();
+            assert false : "an instance with release dates cannot be reversed";
+        } catch (RuntimeException e) {
+            assert e.getMessage().contains("sub");
+        }
+    }
+
+    @Test
+    public void testConversions() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+
+        // numéro de jobs : 1 2 3 4 5 6 1 2 3 ...
+        JobNumbers enc = new JobNumbers(instance);
+        for(int t = 0; t < instance.numTasks; t++) {
+            for(int j = 0; j < instance.numJobs; j++) {
+                enc.addTaskOfJob(j);
+            }
+        }
+        Schedule sched = enc.toSchedule().get();
+        assert sched.isValid();
+
+        // all paths between encodings lead to the same solution
+        ResourceOrder ro = enc.toResourceOrder();
+        assert ro.equals(new ResourceOrder(sched));
+        assert ro.toSchedule().get().makespan() == sched.makespan();
+        assert new JobNumbers(ro).toSchedule().get().makespan() == sched.makespan();
+        assert new JobNumbers(sched).toSchedule().get().makespan() == sched.makespan();
+
+        // a cycle between two machines has no schedule
+        Instance small = Instance.fromFile(Paths.get("instances/aaa1"));
+        ResourceOrder cyclic = new ResourceOrder(small);
+        cyclic.addTaskToMachine(1, new Task(0,1));
+        cyclic.addTaskToMachine(1, new Task(1,0));
+        cyclic.addTaskToMachine(0, new Task(1,1));
+        cyclic.addTaskToMachine(0, new Task(0,0));
+        cyclic.addTaskToMachine(2, new Task(1,2));
+        cyclic.addTaskToMachine(2, new Task(0,2));
+        assert cyclic.toSchedule().isEmpty();
+    }
+
+    @Test
+    public void testScheduleValidation() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+
+        // numéro de jobs : 1 2 1 2 1 2
+        JobNumbers enc = new JobNumbers(instance);
+        for(int i = 0; i < 6; i++) {
+            enc.addTaskOfJob(i % 2);
+        }
+        Schedule sched = enc.toSchedule().get();
+        assert sched.validate().isEmpty();
+
+        // (1,2) starts on machine 2 before the end of (0,2), at 8
+        sched.setStartTime(1, 2, 7);
+        Schedule.Violation violation = sched.validate().get();
+        assert violation.machine == 2 && violation.task.equals(new Task(1, 2)) && violation.other.equals(new Task(0, 2));
+        assert !sched.isValid();
+
+        // (0,1) starts before the end of (0,0), at 3
+        sched.setStartTime(1, 2, 8);
+        sched.setStartTime(0, 1, 2);
+        violation = sched.validate().get();
+        assert violation.machine == -1 && violation.task.equals(new Task(0, 1)) && violation.other.equals(new Task(0, 0));
+    }
+
+    @Test
+    public void testTaillardFormat() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+
+        // the same instance in the format of Taillard, machines being numbered from 1
+        Path file = Files.createTempFile("aaa1", ".txt");
+        Files.writeString(file, "Nb of jobs, Nb of Machines, Time seed, Machine seed, Upper bound, Lower bound\n"
+                + "  2  3  840612802  398197754  12  12\n"
+                + "Times\n 3 3 2\n 2 2 4\n"
+                + "Machines\n 1 2 3\n 2 1 3\n");
+        Instance taillard = Instance.fromFile(file);
+        Files.delete(file);
+
+        assert taillard.numJobs == instance.numJobs && taillard.numTasks == instance.numTasks;
+        for(int j = 0; j < instance.numJobs; j++) {
+            for(int t = 0; t < instance.numTasks; t++) {
+                assert taillard.machine(j, t) == instance.machine(j, t);
+                assert taillard.duration(j, t) == instance.duration(j, t);
+            }
+        }
+    }
+
+    @Test
+    public void testTaillardGenerator() throws IOException {
+        // the generator reproduces the published instances ta01 to ta80 from their seeds
+        for(int k = 1; k <= 80; k++) {
+            String name = String.format("ta%02d", k);
+            Instance file = Instance.fromFile(Paths.get("instances", name));
+            Instance generated = TaillardGenerator.taillard(k);
+            assert generated.numJobs == file.numJobs && generated.numTasks == file.numTasks : name;
+            for(int j = 0; j < file.numJobs; j++) {
+                for(int t = 0; t < file.numTasks; t++) {
+                    assert generated.machine(j, t) == file.machine(j, t) : name;
+                    assert generated.duration(j, t) == file.duration(j, t) : name;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInstanceCatalog() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        InstanceCatalog catalog = InstanceCatalog.standard();
+        assert catalog.bestKnown("ft06") == 55;
+        assert catalog.instancesMatching("ft").equals(List.of("ft06", "ft10", "ft20"));
+
+        // the first load may parse the text file, the second one reads its binary copy
+        for(int i = 0; i < 2; i++) {
+            Instance loaded = catalog.load("ft06");
+            assert loaded.name.equals("ft06");
+            for(int j = 0; j < instance.numJobs; j++) {
+                for(int t = 0; t < instance.numTasks; t++) {
+                    assert loaded.machine(j, t) == instance.machine(j, t);
+                    assert loaded.duration(j, t) == instance.duration(j, t);
+                }
+            }
+        }
+    }
 }
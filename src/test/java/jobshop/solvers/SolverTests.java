@@ -0,0 +1,602 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.encodings.Task;
+import jobshop.solvers.neighborhood.Neighbor;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class SolverTests {
+
+    /** Time given to each solver on each instance, in milliseconds. */
+    private static final long TIME = 300;
+
+    /** Checks that the given solver returns valid schedules on ft06 and la01, no worse than the ones of the solver it
+     * starts from. */
+    private static void assertNoWorseThan(String solverName, String baseName) throws IOException {
+        for(String name : new String[] {"ft06", "la01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Result base = Solver.getSolver(baseName).solve(instance, System.currentTimeMillis() + TIME);
+            Result result = Solver.getSolver(solverName).solve(instance, System.currentTimeMillis() + TIME);
+            assert result.schedule.get().isValid() : solverName + " on " + name;
+            assert result.schedule.get().makespan() <= base.schedule.get().makespan() : solverName + " on " + name;
+        }
+    }
+
+    @Test
+    public void testIteratedLocalSearch() throws IOException {
+        assertNoWorseThan("ils", "est_lrpt");
+
+        // the solutions slightly worse than the best one are accepted as starting points of the next kicks
+        assert IteratedLocalSearchSolver.accepts(1000, 1000) && IteratedLocalSearchSolver.accepts(1010, 1000);
+        assert !IteratedLocalSearchSolver.accepts(1011, 1000);
+        // the kick grows while it fails to improve the best solution, and is reset on improvement
+        int kick = IteratedLocalSearchSolver.MIN_KICK;
+        for(int i = 0; i < 10; i++) {
+            kick = IteratedLocalSearchSolver.nextKick(kick, false, 5);
+        }
+        assert kick == 5;
+        assert IteratedLocalSearchSolver.nextKick(kick, true, 5) == IteratedLocalSearchSolver.MIN_KICK;
+
+        // the descent stops at a local optimum of all its neighborhoods
+        Instance ft10 = Instance.fromFile(Paths.get("instances/ft10"));
+        IteratedLocalSearchSolver ils = (IteratedLocalSearchSolver) Solver.getSolver("ils");
+        ResourceOrder order = new ResourceOrder(Solver.getSolver("spt").solve(ft10, Long.MAX_VALUE).schedule.get());
+        int makespan = ils.descent(order, Long.MAX_VALUE);
+        assert makespan == order.toSchedule().get().makespan();
+        for(Neighborhood<ResourceOrder> neighborhood : ils.neighborhoods) {
+            for(Neighbor<ResourceOrder> neighbor : neighborhood.generateNeighbors(order)) {
+                neighbor.applyOn(order);
+                assert order.toSchedule().map(Schedule::makespan).orElse(Integer.MAX_VALUE) >= makespan;
+                neighbor.undoApplyOn(order);
+            }
+        }
+
+        // contrary to the descent, the search goes on until the deadline
+        long start = System.currentTimeMillis();
+        Result result = ils.solve(ft10, start + TIME);
+        assert result.cause == Result.ExitCause.Timeout;
+        assert System.currentTimeMillis() - start >= TIME - 5;
+        assert Solver.getSolver("descent").solve(ft10, start + 10 * TIME).cause == Result.ExitCause.Blocked;
+    }
+
+    @Test
+    public void testReactiveTaboo() throws IOException {
+        assertNoWorseThan("rts", "est_lrpt");
+
+        // revisits in short cycles lengthen the tenure, up to its maximum
+        ReactiveTabooSolver.Tenure tenure = new ReactiveTabooSolver.Tenure(50);
+        int iteration = 0;
+        int previous = tenure.iterations();
+        for(int i = 0; i < 5; i++) {
+            assert !tenure.visit(2, 6, ++iteration);
+            assert tenure.iterations() > previous;
+            previous = tenure.iterations();
+        }
+        for(int i = 0; i < 100; i++) {
+            tenure.visit(2, 6, ++iteration);
+        }
+        assert tenure.iterations() == 50;
+        // revisits after a long time are not cycles
+        tenure.visit(2, 1000, ++iteration);
+        assert tenure.iterations() == 50;
+
+        // new solutions for longer than the average cycle shorten it, down to its minimum
+        for(int i = 0; i < 1000; i++) {
+            tenure.visit(1, 0, ++iteration);
+        }
+        assert tenure.iterations() == ReactiveTabooSolver.MIN_TENURE;
+
+        // so does a streak of improving moves
+        ReactiveTabooSolver.Tenure improving = new ReactiveTabooSolver.Tenure(50);
+        for(int i = 1; i < ReactiveTabooSolver.IMPROVING_STREAK; i++) {
+            improving.moved(true);
+        }
+        improving.moved(false);
+        improving.moved(true);
+        assert improving.iterations() == ReactiveTabooSolver.INITIAL_TENURE;
+        for(int i = 1; i < ReactiveTabooSolver.IMPROVING_STREAK; i++) {
+            improving.moved(true);
+        }
+        assert improving.iterations() < ReactiveTabooSolver.INITIAL_TENURE;
+
+        // solutions visited too often trigger an escape, that resets the tenure
+        ReactiveTabooSolver.Tenure trapped = new ReactiveTabooSolver.Tenure(50);
+        for(int i = 0; i < ReactiveTabooSolver.CHAOTIC; i++) {
+            assert !trapped.visit(ReactiveTabooSolver.REPETITIONS + 1, 4, ++iteration);
+        }
+        assert trapped.iterations() > ReactiveTabooSolver.INITIAL_TENURE;
+        assert trapped.visit(ReactiveTabooSolver.REPETITIONS + 1, 4, ++iteration);
+        assert trapped.iterations() == ReactiveTabooSolver.INITIAL_TENURE;
+    }
+
+    @Test
+    public void testTSAB() throws IOException {
+        assertNoWorseThan("tsab", "est_lrpt");
+
+        // a back jump restores the elite solution and its taboo list, then explores its next move, made taboo
+        Instance ft06 = Instance.fromFile(Paths.get("instances/ft06"));
+        ResourceOrder elite = new ResourceOrder(Solver.getSolver("spt").solve(ft06, Long.MAX_VALUE).schedule.get());
+        int[] jobs = new int[ft06.numMachines * ft06.numJobs];
+        elite.saveJobs(jobs);
+        int[] eliteTaboo = {3, 4, 5, 6, -1, -1};
+        long[] moves = {TSABSolver.encodeMove(2, 3, 4, ft06.numJobs), TSABSolver.encodeMove(5, 0, 1, ft06.numJobs)};
+        TSABSolver.Elite point = new TSABSolver.Elite(jobs, 0, eliteTaboo.clone(), 2, moves);
+
+        ResourceOrder ro = new ResourceOrder(Solver.getSolver("lrpt").solve(ft06, Long.MAX_VALUE).schedule.get());
+        int[] taboo = {7, 8, 9, 10, 11, 12};
+        for(int jump = 0; jump < moves.length; jump++) {
+            int machine = jump == 0 ? 2 : 5;
+            int t1 = jump == 0 ? 3 : 0;
+            int t2 = jump == 0 ? 4 : 1;
+            Task first = elite.getTaskOfMachine(machine, t1);
+            Task second = elite.getTaskOfMachine(machine, t2);
+
+            int head = TSABSolver.jumpBack(point, ro, taboo);
+            assert point.nextMove == jump + 1;
+            ResourceOrder expected = elite.copy();
+            expected.swapTasks(machine, t1, t2);
+            assert ro.equals(expected);
+            assert head == 0;
+            assert taboo[0] == 3 && taboo[1] == 4 && taboo[2] == 5 && taboo[3] == 6;
+            assert taboo[4] == first.job * ft06.numTasks + first.task;
+            assert taboo[5] == second.job * ft06.numTasks + second.task;
+            // the taboo list of the elite solution is left unchanged for its next back jumps
+            assert Arrays.equals(point.taboo, eliteTaboo);
+            taboo[0] = 42;
+        }
+
+        // moves are encoded without overflow on large instances
+        assert TSABSolver.encodeMove(19, 19999, 19998, 20000) == (19L * 20000 + 19999) * 20000 + 19998;
+    }
+
+    @Test
+    public void testShiftingBottleneck() throws IOException {
+        assertNoWorseThan("sb", "est_lrpt");
+
+        // the reoptimization of the machines sequenced before each new bottleneck improves the schedules
+        for(String name : new String[] {"ft10", "la01", "orb01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Schedule plain = new ShiftingBottleneckSolver(0, 1000).solve(instance, Long.MAX_VALUE).schedule.get();
+            Schedule reoptimized = new ShiftingBottleneckSolver(3, 1000).solve(instance, Long.MAX_VALUE).schedule.get();
+            assert plain.isValid() && reoptimized.isValid() : name;
+            assert reoptimized.makespan() < plain.makespan() : name;
+        }
+    }
+
+    @Test
+    public void testCarlier() {
+        // example of Carlier (1982): Schrage's rule gives 53, the optimum is 50
+        int[] r = {10, 13, 11, 20, 30, 0, 30};
+        int[] p = {5, 6, 7, 4, 3, 6, 2};
+        int[] q = {7, 26, 24, 21, 8, 17, 0};
+        assert Carlier.value(Carlier.schrageSequence(r, p, q), r, p, q) == 53;
+        int[] sequence = Carlier.sequence(r, p, q, 1000);
+        assert Carlier.value(sequence, r, p, q) == 50;
+        assert Arrays.stream(sequence).sorted().boxed().collect(Collectors.toList())
+                .equals(List.of(0, 1, 2, 3, 4, 5, 6));
+        // the parameters are left unchanged
+        assert Arrays.equals(r, new int[] {10, 13, 11, 20, 30, 0, 30});
+        assert Arrays.equals(q, new int[] {7, 26, 24, 21, 8, 17, 0});
+    }
+
+    @Test
+    public void testLargeNeighborhoodSearch() throws IOException {
+        assertNoWorseThan("lns", "sb");
+
+        // the weight of an operator follows its success rate, without ever falling below the minimum
+        double[] weights = {1, 1, 1};
+        for(int i = 0; i < 50; i++) {
+            LargeNeighborhoodSearchSolver.reward(weights, 0, true);
+            LargeNeighborhoodSearchSolver.reward(weights, 1, false);
+        }
+        assert weights[0] == 1 && weights[1] == LargeNeighborhoodSearchSolver.MIN_WEIGHT && weights[2] == 1;
+        LargeNeighborhoodSearchSolver.reward(weights, 1, true);
+        assert weights[1] > LargeNeighborhoodSearchSolver.MIN_WEIGHT;
+
+        // operators are drawn in proportion of their weights
+        double[] skewed = {0.9, 0.05, 0.05};
+        Random generator = new Random(0);
+        int[] draws = new int[3];
+        for(int i = 0; i < 10000; i++) {
+            draws[LargeNeighborhoodSearchSolver.roulette(skewed, generator)]++;
+        }
+        assert draws[0] > 8500 && draws[1] > 300 && draws[2] > 300;
+
+        // a window is repaired exactly: freeing all tasks of la01 with enough nodes finds its optimum, freeing none
+        // cannot improve the solution
+        Instance la01 = Instance.fromFile(Paths.get("instances/la01"));
+        Schedule greedy = Solver.getSolver("est_lrpt").solve(la01, Long.MAX_VALUE).schedule.get();
+        LargeNeighborhoodSearchSolver lns = new LargeNeighborhoodSearchSolver(new BasicSolver(), 6, Long.MAX_VALUE, 0);
+        boolean[] all = new boolean[la01.numMachines * la01.numJobs];
+        Arrays.fill(all, true);
+        Schedule repaired = lns.repair(greedy, all, System.currentTimeMillis() + 10000);
+        assert repaired != null && repaired.isValid() && repaired.makespan() == 666;
+        assert lns.repair(greedy, new boolean[all.length], System.currentTimeMillis() + 10000) == null;
+
+        // each operator frees some tasks
+        for(LargeNeighborhoodSearchSolver.Destroy operator : LargeNeighborhoodSearchSolver.Destroy.values()) {
+            boolean[] free = LargeNeighborhoodSearchSolver.destroy(greedy, operator, 4, new Random(0));
+            int count = 0;
+            for(boolean f : free) {
+                count += f ? 1 : 0;
+            }
+            assert count > 1 && count < free.length : operator;
+        }
+    }
+
+    @Test
+    public void testAntColony() throws IOException {
+        assertNoWorseThan("aco", "est_lrpt");
+
+        Instance ft10 = Instance.fromFile(Paths.get("instances/ft10"));
+        int n = ft10.numJobs;
+        AntColonySolver aco = new AntColonySolver(GreedySolver.Priority.EST_LRPT, 16, 0.1, 2, 0);
+        double[] heuristic = aco.heuristic(ft10);
+        float[] pheromone = new float[ft10.numMachines * (n + 1) * n];
+
+        // without randomness, an ant always picks the task of best priority
+        AntColonySolver.Ant greedy = aco.construct(ft10, pheromone, heuristic, false, new Random(0));
+        ResourceOrder ro = new ResourceOrder(ft10);
+        ro.restoreJobs(greedy.jobs);
+        Schedule schedule = ro.toSchedule().get();
+        assert schedule.isValid() && schedule.makespan() == greedy.makespan;
+        int greedyMakespan = greedy.makespan;
+
+        // an ant deposits 1/makespan on the pair (previous job, job) of each position of each machine
+        AntColonySolver.deposit(ft10, pheromone, greedy);
+        int deposited = 0;
+        for(int m = 0; m < ft10.numMachines; ++m) {
+            int previous = -1;
+            for(int i = 0; i < n; ++i) {
+                int job = greedy.jobs[m * n + i];
+                assert pheromone[(m * (n + 1) + previous + 1) * n + job] == 1f / greedy.makespan;
+                previous = job;
+            }
+        }
+        for(float p : pheromone) {
+            deposited += p > 0 ? 1 : 0;
+        }
+        assert deposited == ft10.numMachines * n;
+
+        // ants are guided by the pheromone: with pheromone on the pairs of one solution only, random ants rebuild it
+        for(int seed = 0; seed < 5; ++seed) {
+            AntColonySolver.Ant ant = aco.construct(ft10, pheromone, heuristic, true, new Random(seed));
+            assert Arrays.equals(ant.jobs, greedy.jobs) && ant.makespan == greedy.makespan;
+        }
+
+        // the descent improves an ant in place, to a local optimum of the Nowicki and Smutnicki neighborhood
+        AntColonySolver.descent(ft10, greedy, System.currentTimeMillis() + 10 * TIME);
+        ro = new ResourceOrder(ft10);
+        ro.restoreJobs(greedy.jobs);
+        assert ro.toSchedule().get().makespan() == greedy.makespan && greedy.makespan < greedyMakespan;
+    }
+
+    @Test
+    public void testVisitHistory() {
+        VisitHistory history = new VisitHistory(3);
+        assert history.visit(42, 1) == 1 && history.cycleLength() == 0;
+        assert history.visit(0, 2) == 1;
+        assert history.visit(42, 5) == 2 && history.cycleLength() == 4;
+        assert history.visit(0, 6) == 2 && history.cycleLength() == 4;
+        assert history.visit(7, 8) == 1 && history.size() == 3;
+
+        // once full, the history forgets all visits before recording a new one
+        assert history.visit(8, 9) == 1 && history.size() == 1;
+        assert history.visit(42, 10) == 1;
+
+        // growing the table keeps the visits
+        VisitHistory large = new VisitHistory(1 << 20);
+        for(int i = 1; i <= 5000; i++) {
+            large.visit(i * 0x9E3779B97F4A7C15L, i);
+        }
+        assert large.size() == 5000;
+        assert large.visit(1234 * 0x9E3779B97F4A7C15L, 6000) == 2 && large.cycleLength() == 6000 - 1234;
+    }
+
+    @Test
+    public void testHashedTabooMemory() {
+        TabooMemory.Hashed taboo = new TabooMemory.Hashed(100, 4);
+        taboo.forbid(1, 2, 0, 10);
+        assert taboo.expiry(1, 2) == 10 && taboo.expiry(2, 1) == 10;
+        assert taboo.expiry(1, 3) == 0;
+        taboo.forbid(2, 1, 5, 100);
+        assert taboo.expiry(1, 2) == 100;
+
+        // pairs whose expiry has passed are dropped when the table is rebuilt, the others are kept
+        for(int k = 3; k < 30; k++) {
+            taboo.forbid(0, k, k, k + 2);
+        }
+        assert taboo.expiry(1, 2) == 100;
+        assert taboo.expiry(0, 3) == 0 && taboo.expiry(0, 29) == 31;
+        taboo.clear();
+        assert taboo.expiry(1, 2) == 0 && taboo.expiry(0, 29) == 0;
+
+        // the table grows with the number of pairs forbidden at the same time, and agrees with the dense memory on
+        // all pairs that are still forbidden
+        TabooMemory.Dense dense = new TabooMemory.Dense(100);
+        Random generator = new Random(0);
+        for(int iteration = 1; iteration <= 5000; iteration++) {
+            int op1 = generator.nextInt(100);
+            int op2 = generator.nextInt(100);
+            int until = iteration + generator.nextInt(iteration < 2500 ? 10 : 200);
+            taboo.forbid(op1, op2, iteration, until);
+            dense.forbid(op1, op2, iteration, until);
+            for(int check = 0; check < 10; check++) {
+                int a = generator.nextInt(100);
+                int b = generator.nextInt(100);
+                int expected = dense.expiry(a, b);
+                int actual = taboo.expiry(a, b);
+                assert expected > iteration ? actual == expected : actual <= iteration : a + "," + b + " at " + iteration;
+            }
+        }
+
+        // the dense matrix is only used while it stays small
+        assert TabooMemory.create(TabooMemory.DENSE_LIMIT, 10) instanceof TabooMemory.Dense;
+        assert TabooMemory.create(TabooMemory.DENSE_LIMIT + 1, 10) instanceof TabooMemory.Hashed;
+        TabooMemory large = TabooMemory.create(100 * 20, 10);
+        large.forbid(0, 1999, 1, 11);
+        assert large.expiry(1999, 0) == 11 && large.expiry(0, 1998) == 0;
+    }
+
+    @Test
+    public void testBidirectional() throws IOException {
+        assertNoWorseThan("bi_tsab", "est_lrpt");
+
+        // the best direction is kept, and a backward solution is converted to a solution of the instance
+        Instance la01 = Instance.fromFile(Paths.get("instances/la01"));
+        Solver basic = new BasicSolver();
+        Solver greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT);
+        int basicMakespan = basic.solve(la01, System.currentTimeMillis() + TIME).schedule.get().makespan();
+        int backwardMakespan = greedy.solve(la01.reversed(), System.currentTimeMillis() + TIME).schedule.get().makespan();
+        assert backwardMakespan < basicMakespan;
+        Result backward = new BidirectionalSolver(basic, greedy).solve(la01, System.currentTimeMillis() + TIME);
+        assert backward.schedule.get().isValid() && backward.schedule.get().makespan() == backwardMakespan;
+        Result forward = new BidirectionalSolver(greedy, basic).solve(la01, System.currentTimeMillis() + TIME);
+        int forwardMakespan = greedy.solve(la01, System.currentTimeMillis() + TIME).schedule.get().makespan();
+        assert forward.schedule.get().isValid() && forward.schedule.get().makespan() == forwardMakespan;
+    }
+
+    @Test
+    public void testBidirectionalBackwardFailure() throws IOException {
+        Instance ft06 = Instance.fromFile(Paths.get("instances/ft06"));
+        Solver failing = (instance, deadline, listener) -> {
+            throw new IllegalStateException("backward");
+        };
+        try {
+            new BidirectionalSolver(new BasicSolver(), failing).solve(ft06, System.currentTimeMillis() + TIME);
+            assert false : "the failure of the backward search must be reported";
+        } catch (RuntimeException e) {
+            assert e.getCause() instanceof IllegalStateException;
+        }
+    }
+
+    @Test
+    public void testSolverMetrics() throws IOException {
+        Instance la01 = Instance.fromFile(Paths.get("instances/la01"));
+        Solver solver = new TabooSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.SPT), 50, 10);
+        SolverMetrics.reset();
+        SolverMetrics.setTiming(true);
+        int[] improvements = new int[1];
+        Result result = solver.solve(la01, System.currentTimeMillis() + 10000, incumbent -> improvements[0]++);
+        SolverMetrics.setTiming(false);
+        SolverMetrics.Snapshot metrics = SolverMetrics.snapshot();
+
+        long iterations = metrics.count(SolverMetrics.Counter.ITERATIONS);
+        // iterations where all neighbors are taboo do not move, and are not counted
+        assert result.schedule.get().isValid() && iterations > 0 && iterations <= 50;
+        assert metrics.count(SolverMetrics.Counter.NEIGHBORS) >= iterations;
+        assert metrics.count(SolverMetrics.Counter.DECODES) > 0 && metrics.millis(SolverMetrics.Phase.DECODE) > 0;
+        // the greedy start reports its own improvement
+        assert metrics.count(SolverMetrics.Counter.IMPROVEMENTS) == improvements[0] + 1;
+
+        SolverMetrics.reset();
+        for(SolverMetrics.Counter counter : SolverMetrics.Counter.values()) {
+            assert SolverMetrics.snapshot().count(counter) == 0;
+        }
+        assert SolverMetrics.snapshot().millis(SolverMetrics.Phase.DECODE) == 0;
+    }
+
+    @Test
+    public void testListener() throws IOException {
+        Instance ft10 = Instance.fromFile(Paths.get("instances/ft10"));
+        for(String name : new String[] {"tsab", "bi_tsab", "pr"}) {
+            Solver solver = Solver.getSolver(name);
+            List<Integer> makespans = new ArrayList<>();
+            Result result = solver.solve(ft10, System.currentTimeMillis() + TIME, incumbent -> {
+                assert incumbent.schedule().get().makespan() == incumbent.makespan : name;
+                makespans.add(incumbent.makespan);
+            });
+            assert !makespans.isEmpty() : name;
+            for(int i = 1; i < makespans.size(); i++) {
+                assert makespans.get(i) < makespans.get(i - 1) : name + ": " + makespans;
+            }
+            assert makespans.get(makespans.size() - 1) == result.schedule.get().makespan() : name;
+
+            // the listener only belongs to the run it was given to
+            int reported = makespans.size();
+            solver.solve(ft10, System.currentTimeMillis() + TIME);
+            assert makespans.size() == reported : name;
+        }
+    }
+
+    @Test
+    public void testTraceBuffer() {
+        for(int improvements : new int[] {5, 8, 9, 100, 1000}) {
+            TraceBuffer trace = new TraceBuffer(8);
+            for(int i = 0; i < improvements; i++) {
+                trace.improved(new SolverListener.Incumbent(null, null, 10L * i, i, 10000 - i, Optional::empty));
+            }
+            assert improvements <= 8 ? trace.size() == improvements : trace.size() >= 4 && trace.size() <= 9;
+            // the first and the last improvements are always kept, in order
+            assert trace.nanos(0) == 0 && trace.iteration(0) == 0 && trace.makespan(0) == 10000;
+            int last = trace.size() - 1;
+            assert trace.nanos(last) == 10L * (improvements - 1) && trace.iteration(last) == improvements - 1;
+            assert trace.makespan(last) == 10000 - (improvements - 1);
+            for(int i = 1; i < trace.size(); i++) {
+                assert trace.makespan(i) < trace.makespan(i - 1) && trace.nanos(i) > trace.nanos(i - 1);
+            }
+        }
+    }
+
+    @Test
+    public void testPathRelinking() throws IOException {
+        assertNoWorseThan("pr", "est_lrpt");
+
+        // the best solution of a path is correctly evaluated, and a walk stops at its deadline
+        Instance la01 = Instance.fromFile(Paths.get("instances/la01"));
+        ResourceOrder from = new ResourceOrder(Solver.getSolver("spt").solve(la01, System.currentTimeMillis() + TIME).schedule.get());
+        ResourceOrder to = new ResourceOrder(Solver.getSolver("lrpt").solve(la01, System.currentTimeMillis() + TIME).schedule.get());
+        int[] fromJobs = new int[la01.numMachines * la01.numJobs];
+        int[] toJobs = new int[fromJobs.length];
+        from.saveJobs(fromJobs);
+        to.saveJobs(toJobs);
+        PathRelinking relinking = new PathRelinking(la01);
+        int[] best = new int[fromJobs.length];
+        int makespan = relinking.relink(fromJobs, toJobs, best, Long.MAX_VALUE);
+        assert makespan < Integer.MAX_VALUE;
+        ResourceOrder intermediate = new ResourceOrder(la01);
+        intermediate.restoreJobs(best);
+        assert intermediate.toSchedule().get().makespan() == makespan;
+        assert relinking.relink(fromJobs, toJobs, best, System.currentTimeMillis()) == Integer.MAX_VALUE;
+
+        // each step of the path gets one disjunctive arc closer to the guiding solution
+        ElitePool pool = new ElitePool(la01, 3);
+        assert pool.offer(fromJobs, 3000) && pool.offer(toJobs, 2000) && pool.offer(best, makespan);
+        int path = pool.distance(pool.get(0), pool.get(1));
+        assert path > 2;
+        assert pool.distance(pool.get(0), pool.get(2)) + pool.distance(pool.get(2), pool.get(1)) == path;
+
+        // the pool rejects duplicates, and once full replaces the closest of the solutions worse than the offered one
+        assert !pool.offer(toJobs, 2000);
+        int[] neighbor = toJobs.clone();
+        int swapped = neighbor[0];
+        neighbor[0] = neighbor[1];
+        neighbor[1] = swapped;
+        assert !pool.offer(neighbor, 4000);
+        assert pool.offer(neighbor, 1);
+        assert pool.size() == 3 && pool.best().makespan == 1 && pool.get(1).makespan == 1;
+        assert pool.get(0).makespan == 3000 && pool.get(2).makespan == makespan;
+    }
+
+    @Test
+    public void testTranspositionCache() throws IOException {
+        Instance ft06 = Instance.fromFile(Paths.get("instances/ft06"));
+        ResourceOrder order = new ResourceOrder(Solver.getSolver("spt").solve(ft06, Long.MAX_VALUE).schedule.get());
+        TranspositionCache cache = new TranspositionCache(TranspositionCache.entries(ft06));
+        assert cache.memoryBytes() == 0;
+
+        int makespan = cache.makespan(order);
+        assert makespan == order.toSchedule().get().makespan();
+        assert cache.hits() == 0 && cache.misses() == 1 && cache.memoryBytes() > 0;
+
+        // a swap leads to another order, its undo back to the cached one
+        order.swapTasks(0, 0, 1);
+        int swapped = cache.makespan(order);
+        assert cache.hits() == 0 && cache.misses() == 2;
+        assert swapped == order.toSchedule().map(Schedule::makespan).orElse(TranspositionCache.INVALID);
+        order.swapTasks(0, 0, 1);
+        assert cache.makespan(order) == makespan;
+        assert cache.hits() == 1 && cache.misses() == 2;
+
+        // a disabled cache never allocates its entries
+        TranspositionCache disabled = new TranspositionCache(0);
+        assert disabled.makespan(order) == makespan && disabled.makespan(order) == makespan;
+        assert disabled.hits() == 0 && disabled.memoryBytes() == 0;
+    }
+
+    @Test
+    public void testRollingHorizon() throws IOException {
+        assertNoWorseThan("rh", "est_lrpt");
+
+        // small windows, so that many operations are inserted in the idle intervals left by the previous windows
+        Solver solver = new RollingHorizonSolver(Solver.getSolver("tsab"), 12, 0.5);
+        for(String name : new String[] {"ft10", "la01", "ta01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Result result = solver.solve(instance, System.currentTimeMillis() + TIME);
+            assert result.schedule.get().isValid() : name;
+        }
+    }
+
+    @Test
+    public void testBranchAndBoundProvesOptimality() throws IOException {
+        for(String name : new String[] {"ft06", "la01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Result result = Solver.getSolver("bnb").solve(instance, System.currentTimeMillis() + 10000);
+            assert result.schedule.get().isValid() : name;
+            assert result.cause == Result.ExitCause.ProvedOptimal : name + ": " + result.cause;
+            assert result.schedule.get().makespan() == (name.equals("ft06") ? 55 : 666) : name;
+            assert result.lowerBound == result.schedule.get().makespan() : name;
+        }
+
+        // a search limited in nodes is aborted, and only reports the bound of its unexplored nodes
+        Instance ft10 = Instance.fromFile(Paths.get("instances/ft10"));
+        Schedule greedy = Solver.getSolver("est_lrpt").solve(ft10, Long.MAX_VALUE).schedule.get();
+        boolean[] root = new boolean[ft10.numMachines * ft10.numJobs * ft10.numJobs];
+        BranchAndBoundSolver.Search limited = new BranchAndBoundSolver.Search(ft10, greedy, Long.MAX_VALUE, 20, false, null);
+        assert !limited.run(root);
+        assert limited.nodes.get() <= 21;
+        assert limited.bestSchedule().isValid() && limited.upperBound() <= greedy.makespan();
+        assert limited.lowerBound() > 0 && limited.lowerBound() < 930;
+
+        // without limit, the same search proves the optimum of a small instance
+        Instance ft06 = Instance.fromFile(Paths.get("instances/ft06"));
+        Schedule start = Solver.getSolver("est_lrpt").solve(ft06, Long.MAX_VALUE).schedule.get();
+        BranchAndBoundSolver.Search complete = new BranchAndBoundSolver.Search(ft06, start, Long.MAX_VALUE,
+                Long.MAX_VALUE, false, null);
+        assert complete.run(new boolean[ft06.numMachines * ft06.numJobs * ft06.numJobs]);
+        assert complete.upperBound() == 55 && complete.lowerBound() == 55 && complete.bestSchedule().makespan() == 55;
+
+        // on a larger instance, the solver stops at its deadline with its best bound
+        Result timeout = Solver.getSolver("bnb").solve(ft10, System.currentTimeMillis() + TIME);
+        assert timeout.cause == Result.ExitCause.Timeout && timeout.schedule.get().isValid();
+        assert timeout.lowerBound >= LowerBounds.of(ft10) && timeout.lowerBound < timeout.schedule.get().makespan();
+    }
+
+    @Test
+    public void testLowerBounds() throws IOException {
+        Instance ft10 = Instance.fromFile(Paths.get("instances/ft10"));
+        assert LowerBounds.jobBound(ft10) <= LowerBounds.of(ft10);
+        assert LowerBounds.machineBound(ft10) <= LowerBounds.jacksonBound(ft10);
+        assert LowerBounds.of(ft10) == 808;
+
+        // every solver stops as soon as its solution reaches the bound, here the optimum of la06
+        Instance la06 = Instance.fromFile(Paths.get("instances/la06"));
+        assert LowerBounds.of(la06) == 926;
+        for(String name : new String[] {"tsab", "rts", "ils", "pr", "bnb", "lns", "sb", "rh", "aco", "bi_tsab"}) {
+            long start = System.currentTimeMillis();
+            Result result = Solver.getSolver(name).solve(la06, start + 10000);
+            assert result.schedule.get().makespan() == 926 : name;
+            assert result.cause == Result.ExitCause.ProvedOptimal && result.lowerBound == 926 : name + ": " + result.cause;
+            assert System.currentTimeMillis() - start < 5000 : name;
+        }
+    }
+
+    @Test
+    public void testTabooMaxIterations() throws IOException {
+        Instance ft06 = Instance.fromFile(Paths.get("instances/ft06"));
+        Instance la01 = Instance.fromFile(Paths.get("instances/la01"));
+
+        // the same solver stops after maxIter iterations on every instance, not only on the first one
+        Solver solver = new TabooSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.SPT), 50, 10);
+        for(Instance instance : new Instance[] {la01, ft06, la01}) {
+            Result result = solver.solve(instance, System.currentTimeMillis() + 10000);
+            assert result.schedule.get().isValid();
+            assert result.cause == Result.ExitCause.MaxIteration || result.cause == Result.ExitCause.ProvedOptimal;
+        }
+    }
+}